@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * A LRU cache holding at most a given number of entries, each of them softly
+ * referenced so the garbage collector can reclaim them under memory pressure.
+ * Pinned keys are held strongly and are neither evicted nor counted against
+ * the maximum size.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedSoftCache<K, V> {
+
+	public static final class Statistics {
+		private final long hitCount;
+		private final long missCount;
+		private final long evictionCount;
+		private final int size;
+
+		Statistics(long hitCount, long missCount, long evictionCount, int size) {
+			this.hitCount = hitCount;
+			this.missCount = missCount;
+			this.evictionCount = evictionCount;
+			this.size = size;
+		}
+
+		public long getHitCount() {
+			return hitCount;
+		}
+
+		public long getMissCount() {
+			return missCount;
+		}
+
+		/**
+		 * @return number of entries removed because the cache was full or because
+		 *         the garbage collector reclaimed them
+		 */
+		public long getEvictionCount() {
+			return evictionCount;
+		}
+
+		public int getSize() {
+			return size;
+		}
+
+		public double getHitRate() {
+			long requests = hitCount + missCount;
+			return requests == 0 ? 1.0 : (double) hitCount / requests;
+		}
+
+		@Override
+		public String toString() {
+			return "size=" + size + ", hits=" + hitCount + ", misses=" + missCount + ", evictions=" + evictionCount;
+		}
+	}
+
+	private final int maximumSize;
+	private final LinkedHashMap<K, SoftReference<V>> softEntries = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<K, V> pinnedEntries = new HashMap<>();
+	private final Set<K> pinnedKeys = new HashSet<>();
+
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	public BoundedSoftCache(int maximumSize) {
+		this.maximumSize = maximumSize;
+	}
+
+	public synchronized V get(K key) {
+		V value = pinnedEntries.get(key);
+		if (value == null) {
+			SoftReference<V> reference = softEntries.get(key);
+			if (reference != null) {
+				value = reference.get();
+				if (value == null) {
+					softEntries.remove(key);
+					evictionCount++;
+				}
+			}
+		}
+		if (value == null) {
+			missCount++;
+		} else {
+			hitCount++;
+		}
+		return value;
+	}
+
+	public synchronized void put(K key, V value) {
+		if (pinnedKeys.contains(key)) {
+			pinnedEntries.put(key, value);
+			return;
+		}
+		softEntries.put(key, new SoftReference<>(value));
+		trim();
+	}
+
+	public synchronized void remove(K key) {
+		pinnedEntries.remove(key);
+		softEntries.remove(key);
+	}
+
+	/**
+	 * Holds the value of this key (current and future) strongly, excluding it
+	 * from eviction.
+	 */
+	public synchronized void pin(K key) {
+		if (!pinnedKeys.add(key)) {
+			return;
+		}
+		SoftReference<V> reference = softEntries.remove(key);
+		V value = reference != null ? reference.get() : null;
+		if (value != null) {
+			pinnedEntries.put(key, value);
+		}
+	}
+
+	public synchronized void unpin(K key) {
+		if (!pinnedKeys.remove(key)) {
+			return;
+		}
+		V value = pinnedEntries.remove(key);
+		if (value != null) {
+			put(key, value);
+		}
+	}
+
+	public synchronized Statistics getStatistics() {
+		return new Statistics(hitCount, missCount, evictionCount, pinnedEntries.size() + softEntries.size());
+	}
+
+	private void trim() {
+		Iterator<Entry<K, SoftReference<V>>> iterator = softEntries.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Entry<K, SoftReference<V>> entry = iterator.next();
+			if (softEntries.size() > maximumSize || entry.getValue().get() == null) {
+				iterator.remove();
+				evictionCount++;
+			}
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven;
+
+import java.io.File;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.ModelBuilder;
+import org.apache.maven.model.building.ModelBuildingException;
+import org.apache.maven.model.building.ModelBuildingRequest;
+import org.apache.maven.model.building.ModelBuildingResult;
+import org.apache.maven.model.building.ModelCache;
+import org.apache.maven.model.building.Result;
+
+/**
+ * Sets a shared {@link ModelCache} on model building requests that don't have
+ * one. ProjectBuilder only uses a model cache for reactor builds and doesn't
+ * allow to pass one for single project builds, so this builder replaces the
+ * default one in the container.
+ */
+public class CachingModelBuilder implements ModelBuilder {
+
+	private final ModelBuilder delegate;
+	private final SharedModelCache modelCache;
+
+	public CachingModelBuilder(ModelBuilder delegate, SharedModelCache modelCache) {
+		this.delegate = delegate;
+		this.modelCache = modelCache;
+	}
+
+	@Override
+	public ModelBuildingResult build(ModelBuildingRequest request) throws ModelBuildingException {
+		try {
+			return delegate.build(withCache(request));
+		} finally {
+			modelCache.buildDone();
+		}
+	}
+
+	@Override
+	public ModelBuildingResult build(ModelBuildingRequest request, ModelBuildingResult result)
+			throws ModelBuildingException {
+		try {
+			return delegate.build(withCache(request), result);
+		} finally {
+			modelCache.buildDone();
+		}
+	}
+
+	@Override
+	public Result<? extends Model> buildRawModel(File pomFile, int validationLevel, boolean locationTracking) {
+		return delegate.buildRawModel(pomFile, validationLevel, locationTracking);
+	}
+
+	private ModelBuildingRequest withCache(ModelBuildingRequest request) {
+		if (request.getModelCache() == null) {
+			request.setModelCache(modelCache);
+		}
+		return request;
+	}
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Map;
+
+import org.apache.maven.model.InputSource;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.building.ModelProcessor;
+import org.apache.maven.model.io.ModelParseException;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.model.io.xpp3.MavenXpp3ReaderEx;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.lemminx.dom.DOMDocument;
+
+/**
+ * Reads models of {@link DOMModelSource}s from the lemminx DOM, saving a parse
+ * of the document text on each build. Other sources are read by the default
+ * processor.
+ */
+public class DOMModelProcessor implements ModelProcessor {
+
+	private final ModelProcessor delegate;
+
+	public DOMModelProcessor(ModelProcessor delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public File locatePom(File projectDirectory) {
+		return delegate.locatePom(projectDirectory);
+	}
+
+	@Override
+	public Model read(File input, Map<String, ?> options) throws IOException {
+		return delegate.read(input, options);
+	}
+
+	@Override
+	public Model read(Reader input, Map<String, ?> options) throws IOException {
+		return delegate.read(input, options);
+	}
+
+	@Override
+	public Model read(InputStream input, Map<String, ?> options) throws IOException {
+		Object source = options != null ? options.get(SOURCE) : null;
+		if (source instanceof DOMModelSource && ((DOMModelSource) source).getDocument().getDocumentElement() != null) {
+			input.close();
+			return read(((DOMModelSource) source).getDocument(), isStrict(options),
+					(InputSource) options.get(INPUT_SOURCE));
+		}
+		return delegate.read(input, options);
+	}
+
+	/**
+	 * @param source if not <code>null</code>, input locations are tracked in the
+	 *               model
+	 */
+	public static Model read(DOMDocument document, boolean strict, InputSource source) throws ModelParseException, IOException {
+		try {
+			if (document.getDocumentElement() == null) {
+				// DOM wasn't parsed, or has no element at all: let the regular parser report it
+				if (source != null) {
+					return new MavenXpp3ReaderEx().read(new StringReader(document.getText()), strict, source);
+				}
+				return new MavenXpp3Reader().read(new StringReader(document.getText()), strict);
+			}
+			DOMXmlPullParser parser = new DOMXmlPullParser(document);
+			if (source != null) {
+				return new MavenXpp3ReaderEx().read(parser, strict, source);
+			}
+			return new MavenXpp3Reader().read(parser, strict);
+		} catch (XmlPullParserException e) {
+			throw new ModelParseException(e.getMessage(), e.getLineNumber(), e.getColumnNumber(), e);
+		}
+	}
+
+	private static boolean isStrict(Map<String, ?> options) {
+		Object value = options.get(IS_STRICT);
+		return value == null || Boolean.parseBoolean(value.toString());
+	}
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.maven.model.building.FileModelSource;
+import org.eclipse.lemminx.dom.DOMDocument;
+
+/**
+ * The model source of an edited POM. {@link DOMModelProcessor} reads the model
+ * from the document DOM; the input stream over the document text is only used
+ * by other readers.
+ */
+public class DOMModelSource extends FileModelSource {
+
+	private final DOMDocument document;
+
+	public DOMModelSource(File pomFile, DOMDocument document) {
+		super(pomFile);
+		this.document = document;
+	}
+
+	public DOMDocument getDocument() {
+		return document;
+	}
+
+	@Override
+	public InputStream getInputStream() throws IOException {
+		return new ByteArrayInputStream(document.getText().getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,460 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.codehaus.plexus.util.xml.pull.XmlPullParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.lemminx.commons.BadLocationException;
+import org.eclipse.lemminx.dom.DOMAttr;
+import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.dom.DOMElement;
+import org.eclipse.lemminx.dom.DOMNode;
+import org.eclipse.lsp4j.Position;
+import org.w3c.dom.Node;
+
+/**
+ * An {@link XmlPullParser} replaying the nodes of a lemminx {@link DOMDocument}
+ * so Maven models can be read from the already parsed document instead of
+ * parsing its text again. Namespaces aren't processed, names are reported as
+ * they're written, like MXParser does by default. Errors of the DOM (unclosed
+ * elements, attributes without values...) are reported as
+ * {@link XmlPullParserException}s at their location when reached.
+ */
+public class DOMXmlPullParser implements XmlPullParser {
+
+	private static final class Event {
+		final int type;
+		final DOMElement element;
+		final String text;
+		final int offset;
+		final int depth;
+		final String error;
+
+		Event(int type, DOMElement element, String text, int offset, int depth, String error) {
+			this.type = type;
+			this.element = element;
+			this.text = text;
+			this.offset = offset;
+			this.depth = depth;
+			this.error = error;
+		}
+	}
+
+	private static final int ERROR = -1;
+
+	private final DOMDocument document;
+	private final List<Event> events = new ArrayList<>();
+	private final Map<String, String> entityReplacements = new HashMap<>();
+	private int index;
+
+	public DOMXmlPullParser(DOMDocument document) {
+		this.document = document;
+		entityReplacements.put("lt", "<");
+		entityReplacements.put("gt", ">");
+		entityReplacements.put("amp", "&");
+		entityReplacements.put("quot", "\"");
+		entityReplacements.put("apos", "'");
+		events.add(new Event(START_DOCUMENT, null, null, 0, 0, null));
+		collectEvents(document.getChildren(), 0);
+		events.add(new Event(END_DOCUMENT, null, null, document.getEnd(), 0, null));
+	}
+
+	private void collectEvents(List<DOMNode> nodes, int depth) {
+		StringBuilder text = null;
+		int textOffset = 0;
+		for (DOMNode node : nodes) {
+			switch (node.getNodeType()) {
+			case Node.TEXT_NODE:
+			case Node.CDATA_SECTION_NODE:
+				if (text == null) {
+					text = new StringBuilder();
+				}
+				text.append(toText(node));
+				textOffset = node.getEnd();
+				break;
+			case Node.ELEMENT_NODE:
+				if (text != null) {
+					events.add(new Event(TEXT, null, text.toString(), textOffset, depth, null));
+					text = null;
+				}
+				if (!collectEvents((DOMElement) node, depth + 1)) {
+					return;
+				}
+				break;
+			default:
+				// comments, processing instructions, doctype are ignored like next() does
+			}
+		}
+		if (text != null) {
+			events.add(new Event(TEXT, null, text.toString(), textOffset, depth, null));
+		}
+	}
+
+	/**
+	 * @return false if the element is malformed, no other event will follow
+	 */
+	private boolean collectEvents(DOMElement element, int depth) {
+		if (element.getTagName() == null || element.getStartTagOpenOffset() == DOMNode.NULL_VALUE) {
+			addError("unexpected end tag", element.getStart());
+			return false;
+		}
+		if (element.getStartTagCloseOffset() == DOMNode.NULL_VALUE) {
+			addError("start tag not closed: <" + element.getTagName() + ">", element.getEnd());
+			return false;
+		}
+		for (DOMAttr attribute : element.getAttributeNodes() != null ? element.getAttributeNodes()
+				: Collections.<DOMAttr>emptyList()) {
+			if (attribute.getValue() == null) {
+				addError("attribute value must be set for " + attribute.getName(), attribute.getEnd());
+				return false;
+			}
+		}
+		events.add(new Event(START_TAG, element, null, element.getStartTagCloseOffset() + 1, depth, null));
+		if (element.isSelfClosed()) {
+			events.add(new Event(END_TAG, element, null, element.getEnd(), depth, null));
+			return true;
+		}
+		int eventsBefore = events.size();
+		collectEvents(element.getChildren(), depth);
+		if (events.size() > eventsBefore && events.get(events.size() - 1).type == ERROR) {
+			return false;
+		}
+		if (element.getEndTagOpenOffset() == DOMNode.NULL_VALUE || !element.isClosed()) {
+			addError("expected end tag </" + element.getTagName() + ">", element.getEnd());
+			return false;
+		}
+		events.add(new Event(END_TAG, element, null, element.getEndTagCloseOffset() + 1, depth, null));
+		return true;
+	}
+
+	private void addError(String message, int offset) {
+		events.add(new Event(ERROR, null, null, offset, 0, message));
+	}
+
+	private String toText(DOMNode node) {
+		String raw = document.getText().substring(node.getStart(), node.getEnd());
+		if (node.getNodeType() == Node.CDATA_SECTION_NODE) {
+			int start = raw.startsWith("<![CDATA[") ? "<![CDATA[".length() : 0;
+			int end = raw.endsWith("]]>") ? raw.length() - "]]>".length() : raw.length();
+			return raw.substring(start, Math.max(start, end));
+		}
+		return decode(raw);
+	}
+
+	private String decode(String raw) {
+		int ampersand = raw.indexOf('&');
+		if (ampersand < 0) {
+			return raw;
+		}
+		StringBuilder res = new StringBuilder(raw.length());
+		int from = 0;
+		while (ampersand >= 0) {
+			int semicolon = raw.indexOf(';', ampersand);
+			if (semicolon < 0) {
+				break;
+			}
+			res.append(raw, from, ampersand);
+			String entity = raw.substring(ampersand + 1, semicolon);
+			String replacement = null;
+			if (entity.startsWith("#x")) {
+				replacement = toCharacter(entity.substring(2), 16);
+			} else if (entity.startsWith("#")) {
+				replacement = toCharacter(entity.substring(1), 10);
+			} else {
+				replacement = entityReplacements.get(entity);
+			}
+			res.append(replacement != null ? replacement : raw.substring(ampersand, semicolon + 1));
+			from = semicolon + 1;
+			ampersand = raw.indexOf('&', from);
+		}
+		res.append(raw, from, raw.length());
+		return res.toString();
+	}
+
+	private static String toCharacter(String code, int radix) {
+		try {
+			return new String(Character.toChars(Integer.parseInt(code, radix)));
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private Event current() {
+		return events.get(index);
+	}
+
+	@Override
+	public int next() throws XmlPullParserException, IOException {
+		if (current().type == END_DOCUMENT) {
+			throw new XmlPullParserException("already reached end of XML input", this, null);
+		}
+		index++;
+		if (current().type == ERROR) {
+			throw new XmlPullParserException(current().error, this, null);
+		}
+		return current().type;
+	}
+
+	@Override
+	public int nextToken() throws XmlPullParserException, IOException {
+		return next();
+	}
+
+	@Override
+	public int nextTag() throws XmlPullParserException, IOException {
+		int eventType = next();
+		if (eventType == TEXT && isWhitespace()) {
+			eventType = next();
+		}
+		if (eventType != START_TAG && eventType != END_TAG) {
+			throw new XmlPullParserException("expected START_TAG or END_TAG not " + TYPES[eventType], this, null);
+		}
+		return eventType;
+	}
+
+	@Override
+	public String nextText() throws XmlPullParserException, IOException {
+		if (getEventType() != START_TAG) {
+			throw new XmlPullParserException("parser must be on START_TAG to read next text", this, null);
+		}
+		int eventType = next();
+		if (eventType == TEXT) {
+			String result = getText();
+			eventType = next();
+			if (eventType != END_TAG) {
+				throw new XmlPullParserException("TEXT must be immediately followed by END_TAG and not " + TYPES[eventType], this, null);
+			}
+			return result;
+		} else if (eventType == END_TAG) {
+			return "";
+		}
+		throw new XmlPullParserException("parser must be on START_TAG or TEXT to read text", this, null);
+	}
+
+	@Override
+	public void require(int type, String namespace, String name) throws XmlPullParserException, IOException {
+		if (type != getEventType() || (namespace != null && !namespace.equals(getNamespace()))
+				|| (name != null && !name.equals(getName()))) {
+			throw new XmlPullParserException("expected event " + TYPES[type] + (name != null ? " with name '" + name + "'" : "")
+					+ " but got " + getPositionDescription(), this, null);
+		}
+	}
+
+	@Override
+	public int getEventType() throws XmlPullParserException {
+		return current().type;
+	}
+
+	@Override
+	public int getDepth() {
+		return current().depth;
+	}
+
+	@Override
+	public String getName() {
+		Event event = current();
+		return event.element != null ? event.element.getTagName() : null;
+	}
+
+	@Override
+	public String getText() {
+		return current().text;
+	}
+
+	@Override
+	public char[] getTextCharacters(int[] holderForStartAndLength) {
+		String text = getText();
+		if (text == null) {
+			holderForStartAndLength[0] = -1;
+			holderForStartAndLength[1] = -1;
+			return null;
+		}
+		holderForStartAndLength[0] = 0;
+		holderForStartAndLength[1] = text.length();
+		return text.toCharArray();
+	}
+
+	@Override
+	public boolean isWhitespace() throws XmlPullParserException {
+		if (current().type != TEXT) {
+			throw new XmlPullParserException("no content available to check for whitespaces", this, null);
+		}
+		return current().text.trim().isEmpty();
+	}
+
+	@Override
+	public boolean isEmptyElementTag() throws XmlPullParserException {
+		if (current().type != START_TAG) {
+			throw new XmlPullParserException("parser must be on START_TAG to check for empty element", this, null);
+		}
+		return current().element.isSelfClosed();
+	}
+
+	private List<DOMAttr> getAttributes() {
+		Event event = current();
+		if (event.type != START_TAG || event.element.getAttributeNodes() == null) {
+			return Collections.emptyList();
+		}
+		return event.element.getAttributeNodes();
+	}
+
+	@Override
+	public int getAttributeCount() {
+		return current().type == START_TAG ? getAttributes().size() : -1;
+	}
+
+	@Override
+	public String getAttributeName(int index) {
+		return getAttributes().get(index).getName();
+	}
+
+	@Override
+	public String getAttributeValue(int index) {
+		return decode(getAttributes().get(index).getValue());
+	}
+
+	@Override
+	public String getAttributeValue(String namespace, String name) {
+		for (DOMAttr attribute : getAttributes()) {
+			if (attribute.getName().equals(name)) {
+				return decode(attribute.getValue());
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String getAttributeNamespace(int index) {
+		return "";
+	}
+
+	@Override
+	public String getAttributePrefix(int index) {
+		return null;
+	}
+
+	@Override
+	public String getAttributeType(int index) {
+		return "CDATA";
+	}
+
+	@Override
+	public boolean isAttributeDefault(int index) {
+		return false;
+	}
+
+	@Override
+	public String getNamespace() {
+		return "";
+	}
+
+	@Override
+	public String getNamespace(String prefix) {
+		return null;
+	}
+
+	@Override
+	public int getNamespaceCount(int depth) throws XmlPullParserException {
+		return 0;
+	}
+
+	@Override
+	public String getNamespacePrefix(int pos) throws XmlPullParserException {
+		throw new XmlPullParserException("namespace processing is not enabled", this, null);
+	}
+
+	@Override
+	public String getNamespaceUri(int pos) throws XmlPullParserException {
+		throw new XmlPullParserException("namespace processing is not enabled", this, null);
+	}
+
+	@Override
+	public String getPrefix() {
+		return null;
+	}
+
+	private Position getPosition() {
+		try {
+			return document.positionAt(current().offset);
+		} catch (BadLocationException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public int getLineNumber() {
+		Position position = getPosition();
+		return position != null ? position.getLine() + 1 : -1;
+	}
+
+	@Override
+	public int getColumnNumber() {
+		Position position = getPosition();
+		return position != null ? position.getCharacter() + 1 : -1;
+	}
+
+	@Override
+	public String getPositionDescription() {
+		Event event = current();
+		String description = event.type >= 0 ? TYPES[event.type] : "ERROR";
+		if (event.element != null) {
+			description += " <" + (event.type == END_TAG ? "/" : "") + event.element.getTagName() + ">";
+		}
+		return description + " @" + getLineNumber() + ':' + getColumnNumber();
+	}
+
+	@Override
+	public void defineEntityReplacementText(String entityName, String replacementText) throws XmlPullParserException {
+		entityReplacements.put(entityName, replacementText);
+	}
+
+	@Override
+	public void setFeature(String name, boolean state) throws XmlPullParserException {
+		// the DOM is already parsed, features can't change how
+	}
+
+	@Override
+	public boolean getFeature(String name) {
+		return false;
+	}
+
+	@Override
+	public void setProperty(String name, Object value) throws XmlPullParserException {
+		throw new XmlPullParserException("unsupported property: " + name);
+	}
+
+	@Override
+	public Object getProperty(String name) {
+		return null;
+	}
+
+	@Override
+	public void setInput(Reader in) throws XmlPullParserException {
+		throw new XmlPullParserException("input is the DOM document");
+	}
+
+	@Override
+	public void setInput(InputStream inputStream, String inputEncoding) throws XmlPullParserException {
+		throw new XmlPullParserException("input is the DOM document");
+	}
+
+	@Override
+	public String getInputEncoding() {
+		return null;
+	}
+}
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Persists effective models on disk so that projects are available right after
+ * a restart, before they're built again. An entry is only used if the POM
+ * content, and the files of its parent chain and imported BOMs, didn't change
+ * since it was stored. Entries are read lazily, when a project is requested.
+ */
+public class EffectiveModelStore {
+
+	private static final String MODEL_EXTENSION = ".xml";
+	private static final String FINGERPRINT_EXTENSION = ".fingerprint";
+
+	private final File directory;
+
+	public EffectiveModelStore(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * @param pomFile     POM the model was built from
+	 * @param contentHash hash of the POM content, see {@link Hashes#sha1(String)}
+	 * @return the stored effective model if it's still valid
+	 */
+	public Optional<Model> load(File pomFile, String contentHash) {
+		String key = key(pomFile);
+		File fingerprintFile = new File(directory, key + FINGERPRINT_EXTENSION);
+		File modelFile = new File(directory, key + MODEL_EXTENSION);
+		if (!fingerprintFile.isFile() || !modelFile.isFile()) {
+			return Optional.empty();
+		}
+		try {
+			List<String> fingerprint = Files.readAllLines(fingerprintFile.toPath(), StandardCharsets.UTF_8);
+			if (fingerprint.isEmpty() || !fingerprint.get(0).equals(pomFile.getAbsolutePath() + '\t' + contentHash)) {
+				return Optional.empty();
+			}
+			for (String parentStamp : fingerprint.subList(1, fingerprint.size())) {
+				String[] segments = parentStamp.split("\t");
+				if (segments.length != 2 || !segments[1].equals(stamp(new File(segments[0])))) {
+					return Optional.empty();
+				}
+			}
+			try (Reader reader = Files.newBufferedReader(modelFile.toPath(), StandardCharsets.UTF_8)) {
+				return Optional.of(new MavenXpp3Reader().read(reader, false));
+			}
+		} catch (IOException | XmlPullParserException e) {
+			e.printStackTrace();
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Stores the effective model of the project, with the stamps of its parent
+	 * POMs and of the other POMs it was built from.
+	 * 
+	 * @param modelFiles POMs of the imported BOMs, and of the models they inherit
+	 *                   from
+	 */
+	public void store(File pomFile, String contentHash, MavenProject project, Collection<File> modelFiles) {
+		Set<File> files = new LinkedHashSet<>();
+		for (MavenProject parent = project.getParent(); parent != null; parent = parent.getParent()) {
+			if (parent.getFile() != null) {
+				files.add(parent.getFile().getAbsoluteFile());
+			}
+		}
+		modelFiles.stream().map(File::getAbsoluteFile).forEach(files::add);
+		files.remove(pomFile.getAbsoluteFile());
+		List<String> fingerprint = new ArrayList<>();
+		fingerprint.add(pomFile.getAbsolutePath() + '\t' + contentHash);
+		for (File file : files) {
+			fingerprint.add(file.getAbsolutePath() + '\t' + stamp(file));
+		}
+		String key = key(pomFile);
+		try {
+			directory.mkdirs();
+			// the fingerprint is removed first and written last, so that a partially stored entry never validates
+			File fingerprintFile = new File(directory, key + FINGERPRINT_EXTENSION);
+			Files.deleteIfExists(fingerprintFile.toPath());
+			File modelFile = new File(directory, key + MODEL_EXTENSION);
+			File tempFile = new File(directory, key + MODEL_EXTENSION + ".tmp");
+			try (Writer writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+				new MavenXpp3Writer().write(writer, project.getModel());
+			}
+			Files.move(tempFile.toPath(), modelFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			Files.write(fingerprintFile.toPath(), fingerprint, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Deletes the entries of POMs that don't exist anymore
+	 */
+	public void removeVanishedEntries() {
+		File[] fingerprintFiles = directory.listFiles((dir, name) -> name.endsWith(FINGERPRINT_EXTENSION));
+		if (fingerprintFiles == null) {
+			return;
+		}
+		for (File fingerprintFile : fingerprintFiles) {
+			try {
+				List<String> fingerprint = Files.readAllLines(fingerprintFile.toPath(), StandardCharsets.UTF_8);
+				int separator = fingerprint.isEmpty() ? -1 : fingerprint.get(0).lastIndexOf('\t');
+				if (separator < 0 || !new File(fingerprint.get(0).substring(0, separator)).isFile()) {
+					String key = fingerprintFile.getName().substring(0,
+							fingerprintFile.getName().length() - FINGERPRINT_EXTENSION.length());
+					Files.delete(fingerprintFile.toPath());
+					Files.deleteIfExists(new File(directory, key + MODEL_EXTENSION).toPath());
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static String key(File pomFile) {
+		return Hashes.sha1(pomFile.getAbsolutePath());
+	}
+
+	private static String stamp(File file) {
+		return file.lastModified() + ":" + file.length();
+	}
+}
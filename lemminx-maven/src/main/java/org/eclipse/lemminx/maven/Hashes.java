@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public final class Hashes {
+
+	private Hashes() {
+	}
+
+	/**
+	 * @return the hexadecimal SHA-1 of the UTF-8 bytes of the text
+	 */
+	public static String sha1(String text) {
+		return sha1(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return the hexadecimal SHA-1 of the content
+	 */
+	public static String sha1(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+			StringBuilder res = new StringBuilder(digest.length * 2);
+			for (byte b : digest) {
+				res.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			}
+			return res.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-1 is required on all platforms
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -23,22 +23,24 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.maven.Maven;
 import org.apache.maven.artifact.repository.ArtifactRepository;
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.artifact.Gav;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
-import org.apache.maven.plugin.MavenPluginManager;
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
 import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.project.MavenProject;
@@ -47,8 +49,11 @@ import org.eclipse.lemminx.commons.TextDocument;
 import org.eclipse.lemminx.dom.DOMDocument;
 import org.eclipse.lemminx.dom.DOMElement;
 import org.eclipse.lemminx.dom.DOMNode;
+import org.eclipse.lemminx.maven.searcher.LocalRepositories;
 import org.eclipse.lemminx.maven.searcher.LocalRepositorySearcher;
+import org.eclipse.lemminx.maven.searcher.PomMetadata;
 import org.eclipse.lemminx.maven.searcher.RemoteRepositoryIndexSearcher;
+import org.eclipse.lemminx.maven.searcher.VersionTable;
 import org.eclipse.lemminx.maven.snippets.SnippetRegistry;
 import org.eclipse.lemminx.services.extensions.CompletionParticipantAdapter;
 import org.eclipse.lemminx.services.extensions.ICompletionRequest;
@@ -61,6 +66,7 @@ import org.eclipse.lsp4j.MarkupContent;
 import org.eclipse.lsp4j.Position;
 import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.TextEdit;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.eclipse.lsp4j.jsonrpc.messages.Either;
 
 public class MavenCompletionParticipant extends CompletionParticipantAdapter {
@@ -86,23 +92,32 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 	}
 
 	private boolean snippetsLoaded;
-	private final LocalRepositorySearcher localRepositorySearcher;
+	/**
+	 * Maximum number of artifact items for which descriptions are read from
+	 * local POMs
+	 */
+	private static final int MAX_DOCUMENTED_LOCAL_ARTIFACTS = 20;
+	/**
+	 * Maximum number of groupIds, artifacts or versions read from each remote
+	 * index for a completion
+	 */
+	private static final int MAX_REMOTE_RESULTS = 200;
+
+	private final LocalRepositories localRepositories;
 	private final MavenProjectCache cache;
 	private final RemoteRepositoryIndexSearcher indexSearcher;
-	private MavenPluginManager pluginManager;
 
-	public MavenCompletionParticipant(MavenProjectCache cache, LocalRepositorySearcher localRepositorySearcher, RemoteRepositoryIndexSearcher indexSearcher, MavenPluginManager pluginManager) {
+	public MavenCompletionParticipant(MavenProjectCache cache, LocalRepositories localRepositories, RemoteRepositoryIndexSearcher indexSearcher) {
 		this.cache = cache;
-		this.localRepositorySearcher = localRepositorySearcher;
+		this.localRepositories = localRepositories;
 		this.indexSearcher = indexSearcher;
-		this.pluginManager = pluginManager;
 	}
 	
 	@Override
 	public void onTagOpen(ICompletionRequest request, ICompletionResponse response)
 			throws Exception {
 		if ("configuration".equals(request.getParentElement().getLocalName())) {
-			MavenPluginUtils.collectPluginConfigurationParameters(request, cache, pluginManager).stream()
+			MavenPluginUtils.collectPluginConfigurationParameters(request, cache, cache.getPluginManager()).stream()
 					.map(parameter -> toTag(parameter.getName(), MavenPluginUtils.getMarkupDescription(parameter), request))
 					.forEach(response::addCompletionItem);
 		}
@@ -139,6 +154,7 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 				.filter(s -> !s.isEmpty())
 				.findFirst();
 		GAVInsertionStrategy gavInsertionStrategy = computeGAVInsertionStrategy(request);
+		LocalRepositorySearcher localRepositorySearcher = localRepositories.getSearcher(request.getXMLDocument().getDocumentURI());
 		List<ArtifactInfo> allArtifactInfos = Collections.synchronizedList(new ArrayList<>());
 		switch (parent.getLocalName()) {
 		case "scope":
@@ -159,7 +175,8 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 				// TODO remoteRepos
 			} else {
 				// TODO if artifactId is set and match existing content, suggest only matching groupId
-				collectSimpleCompletionItems(isPlugin ? localRepositorySearcher.searchPluginGroupIds() : localRepositorySearcher.searchGroupIds(),
+				String prefix = getTypedPrefix(request);
+				collectSimpleCompletionItems(isPlugin ? localRepositorySearcher.searchPluginGroupIds(prefix) : localRepositorySearcher.searchGroupIds(prefix),
 						Function.identity(), Function.identity(), request).forEach(response::addCompletionAttribute);
 				internalCollectRemoteGAVCompletion(request, isPlugin, allArtifactInfos, response);
 			}
@@ -173,7 +190,8 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 				// TODO localRepo
 				// TODO remoteRepos
 			} else {
-				allArtifactInfos.addAll((isPlugin ? localRepositorySearcher.getLocalPluginArtifacts() : localRepositorySearcher.getLocalArtifactsLastVersion()).stream()
+				String prefix = getTypedPrefix(request);
+				allArtifactInfos.addAll((isPlugin ? localRepositorySearcher.getLocalPluginArtifacts(prefix) : localRepositorySearcher.getLocalArtifactsLastVersion(prefix)).stream()
 					.filter(gav -> !groupId.isPresent() || gav.getGroupId().equals(groupId.get()))
 					// TODO pass description as documentation
 					.map(this::toArtifactInfo)
@@ -184,14 +202,12 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 		case "version":
 			if (!isParentDeclaration) {
 				if (artifactId.isPresent()) {
-					localRepositorySearcher.getLocalArtifactsLastVersion().stream()
-						.filter(gav -> gav.getGroupId().equals(artifactId.get()))
-						.filter(gav -> !groupId.isPresent() || gav.getGroupId().equals(groupId.get()))
-						.findAny()
-						.map(Gav::getVersion)
-						.map(DefaultArtifactVersion::new)
+					Dependency installedArtifact = new Dependency();
+					installedArtifact.setGroupId(groupId.orElse(null));
+					installedArtifact.setArtifactId(artifactId.get());
+					localRepositorySearcher.getLocalArtifactVersions(installedArtifact).stream()
 						.map(version -> toCompletionItem(version.toString(), null, request.getReplaceRange()))
-						.ifPresent(response::addCompletionItem);
+						.forEach(response::addCompletionItem);
 					internalCollectRemoteGAVCompletion(request, isPlugin, allArtifactInfos, response);
 				}
 			} else {
@@ -235,7 +251,7 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 			collectGoals(request).forEach(response::addCompletionItem);
 			break;
 		case "configuration":
-			MavenPluginUtils.collectPluginConfigurationParameters(request, cache, pluginManager).stream()
+			MavenPluginUtils.collectPluginConfigurationParameters(request, cache, cache.getPluginManager()).stream()
 					.map(parameter -> toTag(parameter.getName(), MavenPluginUtils.getMarkupDescription(parameter), request))
 					.forEach(response::addCompletionItem);
 			break;
@@ -256,13 +272,24 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 					}).forEach(response::addCompletionItem);
 		}
 		if (!allArtifactInfos.isEmpty()) {
-			Comparator<ArtifactInfo> artifactInfoComparator = Comparator.comparing(artifact -> new DefaultArtifactVersion(artifact.getVersion()))/*.thenComparing(ArtifactInfo::getDescription)*/;
+			// ranked once, on a table of these versions only
+			Comparator<String> versionComparator = new VersionTable()
+					.comparator(allArtifactInfos.stream().map(ArtifactInfo::getVersion).collect(Collectors.toList()));
+			Comparator<ArtifactInfo> artifactInfoComparator = Comparator.comparing(ArtifactInfo::getVersion, versionComparator)/*.thenComparing(ArtifactInfo::getDescription)*/;
 			final Comparator<ArtifactInfo> highestVersionWithDescriptionComparator = artifactInfoComparator.thenComparing(artifactInfo -> artifactInfo.getDescription() != null ? artifactInfo.getDescription() : "");
-			allArtifactInfos.stream()
+			List<ArtifactInfo> artifacts = allArtifactInfos.stream()
 				.collect(Collectors.groupingBy(artifact -> artifact.getGroupId() + ":" + artifact.getArtifactId()))
 				.values()
 				.stream()
-				.map(artifacts -> Collections.max(artifacts, highestVersionWithDescriptionComparator))
+				.map(group -> Collections.max(group, highestVersionWithDescriptionComparator))
+				.collect(Collectors.toList());
+			if (artifacts.size() <= MAX_DOCUMENTED_LOCAL_ARTIFACTS) {
+				// few enough items to document those without description from their local POM
+				artifacts = artifacts.stream()
+					.map(artifactInfo -> describeFromLocalPom(artifactInfo, localRepositorySearcher))
+					.collect(Collectors.toList());
+			}
+			artifacts.stream()
 				.map(artifactInfo -> toGAVCompletionItem(artifactInfo, request, gavInsertionStrategy))
 				.forEach(response::addCompletionItem);
 		}
@@ -271,6 +298,60 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 		}
 	}
 
+	/**
+	 * @return the text of the completed element before the completion offset
+	 */
+	private static String getTypedPrefix(ICompletionRequest request) {
+		DOMElement element = request.getParentElement();
+		if (element.getStartTagCloseOffset() == DOMNode.NULL_VALUE
+				|| request.getOffset() <= element.getStartTagCloseOffset()) {
+			return "";
+		}
+		return request.getXMLDocument().getText().substring(element.getStartTagCloseOffset() + 1, request.getOffset())
+				.trim();
+	}
+
+	/**
+	 * @return a copy of the artifact described from its local POM, or the
+	 *         artifact itself, which can come from the cache of remote searches
+	 *         and must not be modified
+	 */
+	private ArtifactInfo describeFromLocalPom(ArtifactInfo artifactInfo, LocalRepositorySearcher localRepositorySearcher) {
+		if (artifactInfo.getDescription() != null || artifactInfo.getVersion() == null) {
+			return artifactInfo;
+		}
+		Dependency artifact = new Dependency();
+		artifact.setGroupId(artifactInfo.getGroupId());
+		artifact.setArtifactId(artifactInfo.getArtifactId());
+		artifact.setVersion(artifactInfo.getVersion());
+		try {
+			if (!localRepositorySearcher.isInstalled(artifact)) {
+				return artifactInfo;
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return artifactInfo;
+		}
+		// read in background when missing, so that next completions have it
+		PomMetadata metadata = localRepositorySearcher.getCachedPomMetadata(artifact);
+		if (metadata == null) {
+			return artifactInfo;
+		}
+		String description = Stream.of(metadata.getName(), metadata.getDescription(), metadata.getUrl())
+				.filter(Objects::nonNull)
+				.map(String::trim)
+				.filter(text -> !text.isEmpty() && !text.equals(artifactInfo.getArtifactId()))
+				.collect(Collectors.joining(System.lineSeparator()));
+		if (description.isEmpty()) {
+			return artifactInfo;
+		}
+		ArtifactInfo describedArtifactInfo = new ArtifactInfo(artifactInfo.getRepository(), artifactInfo.getGroupId(),
+				artifactInfo.getArtifactId(), artifactInfo.getVersion(), artifactInfo.getClassifier(),
+				artifactInfo.getFileExtension());
+		describedArtifactInfo.setDescription(description);
+		return describedArtifactInfo;
+	}
+
 	private ArtifactInfo toArtifactInfo(Gav gav) {
 		return new ArtifactInfo(null, gav.getGroupId(), gav.getArtifactId(), gav.getVersion(), null, null);
 	}
@@ -333,7 +414,7 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 	}
 
 	private Collection<CompletionItem> collectGoals(ICompletionRequest request) {
-		PluginDescriptor pluginDescriptor = MavenPluginUtils.getContainingPluginDescriptor(request, cache, pluginManager);
+		PluginDescriptor pluginDescriptor = MavenPluginUtils.getContainingPluginDescriptor(request, cache, cache.getPluginManager());
 		if (pluginDescriptor != null) {
 			return collectSimpleCompletionItems(pluginDescriptor.getMojos(), MojoDescriptor::getGoal, MojoDescriptor::getDescription, request);
 		}
@@ -486,6 +567,28 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 			remoteArtifactRepositories = project.getRemoteArtifactRepositories().stream().map(ArtifactRepository::getUrl).collect(Collectors.toList());
 		}
 		Set<CompletionItem> updateItems = Collections.synchronizedSet(new HashSet<>(remoteArtifactRepositories.size()));
+		AtomicBoolean canceled = new AtomicBoolean();
+		CancelChecker cancelChecker = () -> {
+			if (canceled.get()) {
+				throw new CancellationException();
+			}
+		};
+		// once canceled the response is being built, late results mustn't be added to it
+		Consumer<CompletionItem> itemCollector = item -> {
+			synchronized (canceled) {
+				if (!canceled.get()) {
+					nonArtifactCollector.addCompletionItem(item);
+				}
+			}
+		};
+		Consumer<ArtifactInfo> artifactCollector = artifactInfo -> {
+			synchronized (canceled) {
+				if (!canceled.get()) {
+					artifactInfosCollector.add(artifactInfo);
+				}
+			}
+		};
+		boolean timedOut = false;
 		try {
 			CompletableFuture.allOf(remoteArtifactRepositories.stream().map(repository -> {
 				final CompletionItem updatingItem = new CompletionItem("Updating index for " + repository);
@@ -496,40 +599,26 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 				return indexSearcher.getIndexingContext(URI.create(repository)).thenApplyAsync(index -> {
 					switch (node.getLocalName()) {
 					case "groupId":
-						// TODO: just pass only plugins boolean, and make getGroupId's accept a boolean parameter
-						if (onlyPlugins) {
-							indexSearcher.getPluginGroupIds(artifactToSearch, index).stream()
-									.map(groupId -> toCompletionItem(groupId, null, range)).forEach(nonArtifactCollector::addCompletionItem);
-						} else {
-							indexSearcher.getGroupIds(artifactToSearch, index).stream()
-									.map(groupId -> toCompletionItem(groupId, null, range)).forEach(nonArtifactCollector::addCompletionItem);
-						}
+						indexSearcher.searchGroupIds(artifactToSearch, onlyPlugins, MAX_REMOTE_RESULTS, cancelChecker,
+								groupId -> itemCollector.accept(toCompletionItem(groupId, null, range)), index);
 						return updatingItem;
 					case "artifactId":
-						if (onlyPlugins) {
-							artifactInfosCollector.addAll(indexSearcher.getPluginArtifactIds(artifactToSearch, index));
-						} else {
-							artifactInfosCollector.addAll(indexSearcher.getArtifactIds(artifactToSearch, index));
-						}
+						indexSearcher.searchArtifactIds(artifactToSearch, onlyPlugins, MAX_REMOTE_RESULTS, cancelChecker,
+								artifactCollector, index);
 						return updatingItem;
 					case "version":
-						if (onlyPlugins) {
-							indexSearcher.getPluginArtifactVersions(artifactToSearch, index).stream()
-									.map(version -> toCompletionItem(version.toString(), null, range))
-									.forEach(nonArtifactCollector::addCompletionItem);
-						} else {
-							indexSearcher.getArtifactVersions(artifactToSearch, index).stream()
-									.map(version -> toCompletionItem(version.toString(), null, range))
-									.forEach(nonArtifactCollector::addCompletionItem);
-						}
+						indexSearcher.searchArtifactVersions(artifactToSearch, onlyPlugins, MAX_REMOTE_RESULTS, cancelChecker,
+								version -> itemCollector.accept(toCompletionItem(version.toString(), null, range)), index);
 						return updatingItem;
 					case "dependencies":
 					case "dependency":
-						artifactInfosCollector.addAll(indexSearcher.getArtifactIds(artifactToSearch, index));
+						indexSearcher.searchArtifactIds(artifactToSearch, false, MAX_REMOTE_RESULTS, cancelChecker,
+								artifactCollector, index);
 						return updatingItem;
 					case "plugins":
 					case "plugin":
-						artifactInfosCollector.addAll(indexSearcher.getPluginArtifactIds(artifactToSearch, index));
+						indexSearcher.searchArtifactIds(artifactToSearch, true, MAX_REMOTE_RESULTS, cancelChecker,
+								artifactCollector, index);
 						return updatingItem;
 					}
 					return (CompletionItem)null;
@@ -539,6 +628,14 @@ public class MavenCompletionParticipant extends CompletionParticipantAdapter {
 			exception.printStackTrace();
 		} catch (TimeoutException e) {
 			// nothing to log, some work still pending
+			timedOut = true;
+		} finally {
+			// results arriving after the response is built are useless, stop the pending searches
+			synchronized (canceled) {
+				canceled.set(true);
+			}
+		}
+		if (timedOut) {
 			updateItems.forEach(nonArtifactCollector::addCompletionItem);
 		}
 	}
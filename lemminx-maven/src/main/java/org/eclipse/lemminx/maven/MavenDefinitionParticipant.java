@@ -9,6 +9,7 @@
 package org.eclipse.lemminx.maven;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.util.List;
 import java.util.Optional;
@@ -18,6 +19,7 @@ import org.apache.maven.model.Dependency;
 import org.apache.maven.project.MavenProject;
 import org.eclipse.lemminx.dom.DOMElement;
 import org.eclipse.lemminx.dom.DOMNode;
+import org.eclipse.lemminx.maven.searcher.LocalRepositories;
 import org.eclipse.lemminx.maven.searcher.LocalRepositorySearcher;
 import org.eclipse.lemminx.services.extensions.IDefinitionParticipant;
 import org.eclipse.lemminx.services.extensions.IDefinitionRequest;
@@ -29,12 +31,12 @@ import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
 public class MavenDefinitionParticipant implements IDefinitionParticipant {
 
-	private LocalRepositorySearcher localRepositorySearcher;
+	private LocalRepositories localRepositories;
 	private MavenProjectCache cache;
 
-	public MavenDefinitionParticipant(MavenProjectCache cache, LocalRepositorySearcher localRepositorySearcher) {
+	public MavenDefinitionParticipant(MavenProjectCache cache, LocalRepositories localRepositories) {
 		this.cache = cache;
-		this.localRepositorySearcher = localRepositorySearcher;
+		this.localRepositories = localRepositories;
 	}
 	
 	@Override
@@ -70,10 +72,9 @@ public class MavenDefinitionParticipant implements IDefinitionParticipant {
 			}
 		}
 		if (dependency != null) {
-			File artifactLocation = getArtifactLocation(dependency);
-			LocationLink location = toLocation(artifactLocation, element);
-			if (location != null) {
-				locations.add(location);
+			File artifactLocation = getArtifactLocation(dependency, request.getXMLDocument().getTextDocument().getUri());
+			if (artifactLocation != null) {
+				locations.add(toLocation(artifactLocation, element));
 			}
 			return;
 		}
@@ -87,12 +88,18 @@ public class MavenDefinitionParticipant implements IDefinitionParticipant {
 				p.getVersion().equals(dependency.getVersion());
 	}
 
-	private File getArtifactLocation(Dependency dependency) {
-		File localArtifact = localRepositorySearcher.findLocalFile(dependency);
-		if (localArtifact != null) {
-			return localArtifact;
+	/**
+	 * @return the POM of the artifact in the local repository, or
+	 *         <code>null</code> if it's not installed
+	 */
+	private File getArtifactLocation(Dependency dependency, String documentURI) {
+		LocalRepositorySearcher searcher = localRepositories.getSearcher(documentURI);
+		try {
+			return searcher.isInstalled(dependency) ? searcher.findLocalFile(dependency) : null;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
 		}
-		return null;
 	}
 
 	private LocationLink toLocation(File target, DOMElement element) {
@@ -26,7 +26,6 @@ import java.util.stream.Collectors;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.model.Dependency;
-import org.apache.maven.plugin.MavenPluginManager;
 import org.apache.maven.plugin.descriptor.MojoDescriptor;
 import org.apache.maven.plugin.descriptor.Parameter;
 import org.apache.maven.plugin.descriptor.PluginDescriptor;
@@ -42,13 +41,10 @@ import org.eclipse.lemminx.services.extensions.IPositionRequest;
 public class MavenHoverParticipant implements IHoverParticipant {
 	private final MavenProjectCache cache;
 	private final RemoteRepositoryIndexSearcher indexSearcher;
-	private final MavenPluginManager pluginManager;
 
-	public MavenHoverParticipant(MavenProjectCache cache, RemoteRepositoryIndexSearcher indexSearcher,
-			MavenPluginManager pluginManager) {
+	public MavenHoverParticipant(MavenProjectCache cache, RemoteRepositoryIndexSearcher indexSearcher) {
 		this.cache = cache;
 		this.indexSearcher = indexSearcher;
-		this.pluginManager = pluginManager;
 	}
 
 	@Override
@@ -146,7 +142,7 @@ public class MavenHoverParticipant implements IHoverParticipant {
 	private String collectGoals(IPositionRequest request) {
 		DOMNode node = request.getNode();
 		PluginDescriptor pluginDescriptor = MavenPluginUtils.getContainingPluginDescriptor(request, cache,
-				pluginManager);
+				cache.getPluginManager());
 		if (pluginDescriptor != null) {
 			for (MojoDescriptor mojo : pluginDescriptor.getMojos()) {
 				if (!node.getChild(0).getNodeValue().trim().isEmpty() && node.hasChildNodes()
@@ -160,7 +156,7 @@ public class MavenHoverParticipant implements IHoverParticipant {
 
 	private String collectPuginConfiguration(IPositionRequest request) {
 		List<Parameter> parameters = MavenPluginUtils.collectPluginConfigurationParameters(request, cache,
-				pluginManager);
+				cache.getPluginManager());
 		DOMNode node = request.getNode();
 
 		for (Parameter parameter : parameters) {
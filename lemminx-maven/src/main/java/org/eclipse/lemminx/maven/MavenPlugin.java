@@ -10,9 +10,13 @@
  */
 package org.eclipse.lemminx.maven;
 
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import org.apache.maven.Maven;
-import org.apache.maven.plugin.MavenPluginManager;
-import org.apache.maven.repository.RepositorySystem;
 import org.codehaus.plexus.ContainerConfiguration;
 import org.codehaus.plexus.DefaultContainerConfiguration;
 import org.codehaus.plexus.DefaultPlexusContainer;
@@ -22,9 +26,9 @@ import org.codehaus.plexus.PlexusContainerException;
 import org.codehaus.plexus.classworlds.ClassWorld;
 import org.codehaus.plexus.classworlds.realm.ClassRealm;
 import org.codehaus.plexus.classworlds.realm.NoSuchRealmException;
-import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.eclipse.lemminx.dom.DOMDocument;
-import org.eclipse.lemminx.maven.searcher.LocalRepositorySearcher;
+import org.eclipse.lemminx.maven.searcher.LocalRepositories;
+import org.eclipse.lemminx.maven.searcher.LocalRepositoryLocator;
 import org.eclipse.lemminx.maven.searcher.RemoteRepositoryIndexSearcher;
 import org.eclipse.lemminx.services.extensions.ICompletionParticipant;
 import org.eclipse.lemminx.services.extensions.IHoverParticipant;
@@ -45,12 +49,13 @@ public class MavenPlugin implements IXMLExtension {
 	private ICompletionParticipant completionParticipant;
 	private IDiagnosticsParticipant diagnosticParticipant;
 	private IHoverParticipant hoverParticipant;
-	private PlexusContainer container;
+	private CompletableFuture<PlexusContainer> container;
+	private ExecutorService startupExecutor;
 	private MavenProjectCache cache;
 
 	private RemoteRepositoryIndexSearcher indexSearcher;
 
-	private LocalRepositorySearcher localRepositorySearcher;
+	private LocalRepositories localRepositories;
 
 	private MavenDefinitionParticipant definitionParticipant;
 
@@ -64,30 +69,36 @@ public class MavenPlugin implements IXMLExtension {
 
 	@Override
 	public void start(InitializeParams params, XMLExtensionsRegistry registry) {
-		try {
-			container = newPlexusContainer();
-			cache = new MavenProjectCache(container);
-		} catch (PlexusContainerException e) {
-			e.printStackTrace();
-		}
-		localRepositorySearcher = new LocalRepositorySearcher(RepositorySystem.defaultUserLocalRepository);
-		indexSearcher = new RemoteRepositoryIndexSearcher(container);
+		// the container and components are created in background, participants
+		// answer with what's available until they're ready
+		startupExecutor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Maven components initializer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		container = CompletableFuture.supplyAsync(() -> {
+			try {
+				return newPlexusContainer();
+			} catch (PlexusContainerException e) {
+				e.printStackTrace();
+				throw new CompletionException(e);
+			}
+		}, startupExecutor);
+		// settings.xml and maven.repo.local are honored, projects can override them in .mvn/maven.config
+		LocalRepositoryLocator localRepositoryLocator = new LocalRepositoryLocator();
+		File indexDirectory = new File(localRepositoryLocator.getDefaultLocalRepository().getParentFile(), "_maven_index_");
+		cache = new MavenProjectCache(container, new File(indexDirectory, "effective-models"), localRepositoryLocator);
+		container.thenRunAsync(cache::initialize, startupExecutor);
+		localRepositories = new LocalRepositories(localRepositoryLocator);
+		indexSearcher = new RemoteRepositoryIndexSearcher(container, indexDirectory);
 		cache.addProjectParsedListener(indexSearcher::updateKnownRepositories);
-		try {
-			completionParticipant = new MavenCompletionParticipant(cache, localRepositorySearcher, indexSearcher, container.lookup(MavenPluginManager.class));
-		} catch (ComponentLookupException e) {
-			e.printStackTrace();
-		}
+		completionParticipant = new MavenCompletionParticipant(cache, localRepositories, indexSearcher);
 		registry.registerCompletionParticipant(completionParticipant);
 		diagnosticParticipant = new MavenDiagnosticParticipant(cache);
 		registry.registerDiagnosticsParticipant(diagnosticParticipant);
-		try {
-			hoverParticipant = new MavenHoverParticipant(cache, indexSearcher, (MavenPluginManager) container.lookup(MavenPluginManager.class));
-			registry.registerHoverParticipant(hoverParticipant);
-		} catch (ComponentLookupException e) {
-			e.printStackTrace();
-		}
-		definitionParticipant = new MavenDefinitionParticipant(cache, localRepositorySearcher);
+		hoverParticipant = new MavenHoverParticipant(cache, indexSearcher);
+		registry.registerHoverParticipant(hoverParticipant);
+		definitionParticipant = new MavenDefinitionParticipant(cache, localRepositories);
 		registry.registerDefinitionParticipant(definitionParticipant);
 	}
 
@@ -129,12 +140,16 @@ public class MavenPlugin implements IXMLExtension {
 		registry.unregisterDiagnosticsParticipant(diagnosticParticipant);
 		registry.unregisterHoverParticipant(hoverParticipant);
 		registry.unregisterDefinitionParticipant(definitionParticipant);
-		localRepositorySearcher.stop();
+		localRepositories.stop();
 		indexSearcher.closeContext();
 		indexSearcher = null;
+		cache.stop();
 		cache = null;
-		container.dispose();
+		// disposed once created if it's still starting
+		container.thenAccept(PlexusContainer::dispose);
 		container = null;
+		startupExecutor.shutdown();
+		startupExecutor = null;
 	}
 
 	public static boolean match(DOMDocument document) {
@@ -74,6 +74,10 @@ public class MavenPluginUtils {
 
 	public static PluginDescriptor getContainingPluginDescriptor(IPositionRequest request, MavenProjectCache cache,
 			MavenPluginManager pluginManager) {
+		if (pluginManager == null) {
+			// Maven components are still starting
+			return null;
+		}
 		MavenProject project = cache.getLastSuccessfulMavenProject(request.getXMLDocument());
 		if (project == null) {
 			return null;
@@ -100,7 +104,7 @@ public class MavenPluginUtils {
 		try {
 			return pluginManager.getPluginDescriptor(plugin, project.getPluginRepositories().stream()
 					.map(MavenPluginUtils::toRemoteRepo).collect(Collectors.toList()),
-					cache.getRepositorySystemSession());
+					cache.getRepositorySystemSession(project.getFile()));
 		} catch (PluginResolutionException | PluginDescriptorParsingException | InvalidPluginDescriptorException e) {
 			e.printStackTrace();
 			return null;
@@ -8,20 +8,30 @@
  *******************************************************************************/
 package org.eclipse.lemminx.maven;
 
-import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -36,12 +46,13 @@ import org.apache.maven.internal.aether.DefaultRepositorySystemSessionFactory;
 import org.apache.maven.model.Build;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.building.DefaultModelProblem;
-import org.apache.maven.model.building.FileModelSource;
+import org.apache.maven.model.building.ModelBuilder;
 import org.apache.maven.model.building.ModelBuildingException;
 import org.apache.maven.model.building.ModelProblem;
+import org.apache.maven.model.building.ModelProcessor;
 import org.apache.maven.model.building.ModelProblem.Severity;
 import org.apache.maven.model.building.ModelProblem.Version;
-import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.plugin.MavenPluginManager;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
@@ -51,34 +62,209 @@ import org.apache.maven.project.ProjectBuildingResult;
 import org.apache.maven.repository.RepositorySystem;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
-import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.eclipse.aether.DefaultRepositorySystemSession;
 import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.maven.searcher.LocalRepositoryLocator;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
 public class MavenProjectCache {
 
 	private final Map<URI, Integer> lastCheckedVersion;
-	private final Map<URI, MavenProject> projectCache;
+	private final BoundedSoftCache<URI, MavenProject> projectCache;
+	private final BoundedSoftCache<File, SnapshotProject> snapshotCache;
 	private final Map<URI, Collection<ModelProblem>> problemCache;
-	private final PlexusContainer plexusContainer;
+	private final CompletableFuture<PlexusContainer> plexusContainer;
+	private final EffectiveModelStore modelStore;
 
-	private MavenExecutionRequest mavenRequest;
-	MavenXpp3Reader mavenReader = new MavenXpp3Reader();
+	private volatile MavenExecutionRequest mavenRequest;
 	private DefaultRepositorySystemSession repositorySystemSession;
 	private ProjectBuilder projectBuilder;
 	private RepositorySystem repositorySystem;
 	private ArtifactRepository localRepo;
+	private MavenPluginManager pluginManager;
+	private DefaultRepositorySystemSessionFactory repositorySessionFactory;
+	private final LocalRepositoryLocator localRepositoryLocator;
+	/**
+	 * Sessions of the local repositories that projects set in their
+	 * <code>.mvn/maven.config</code>, by repository directory
+	 */
+	private final Map<File, RepositorySession> projectRepositorySessions = new ConcurrentHashMap<>();
+
+	private final Map<URI, BuildJob> pendingBuilds;
+	private final Map<URI, String> fingerprints = new ConcurrentHashMap<>();
+	private final AtomicLong buildCount = new AtomicLong();
+	private final AtomicLong skippedBuildCount = new AtomicLong();
+	private final SharedModelCache sharedModelCache = new SharedModelCache(this::findPomFile);
+	private final Map<String, File> knownPomFiles = new ConcurrentHashMap<>();
+	/**
+	 * Local repository of the build running on the current thread, where the
+	 * parents and BOMs it reads come from
+	 */
+	private final ThreadLocal<File> buildLocalRepository = new ThreadLocal<>();
+	private final MavenProjectWorkspaceReader workspaceReader = new MavenProjectWorkspaceReader();
+	/**
+	 * URIs of the projects inheriting from a given
+	 * <code>groupId:artifactId:version</code>
+	 */
+	private final Map<String, Set<URI>> dependentProjects = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService buildExecutor;
+	/**
+	 * Built projects waiting to be stored, by POM file. Only the last build of a
+	 * POM gets stored.
+	 */
+	private final Map<File, PendingModel> pendingModels = new ConcurrentHashMap<>();
+	private final AtomicBoolean modelStoreScheduled = new AtomicBoolean();
+	private final ScheduledExecutorService modelStoreExecutor;
+
+	private final List<Consumer<MavenProject>> projectParsedListeners = new CopyOnWriteArrayList<>();
+	/**
+	 * URIs of the pinned projects, from the least to the most recently used
+	 */
+	private final LinkedHashMap<URI, Boolean> pinnedProjects = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Delay after the last edit of a document before its project gets rebuilt in
+	 * background. Diagnostics of the last edit are published once it's built.
+	 */
+	private static final long BUILD_DEBOUNCE_DELAY_MS = 300;
+
+	/**
+	 * Interval at which a validation waiting for a build checks whether it was
+	 * cancelled
+	 */
+	private static final long CANCEL_CHECK_INTERVAL_MS = 50;
+
+	/**
+	 * Delay before built projects get stored, so that a POM being edited is
+	 * stored once rather than after each build
+	 */
+	private static final long MODEL_STORE_DELAY_MS = 10000;
+
+	/**
+	 * Maximum number of projects kept for documents that weren't used recently,
+	 * and for files loaded through {@link #getSnapshotProject(File)}. Projects of
+	 * the recently used documents are pinned and don't count.
+	 */
+	private static final int MAX_CACHED_PROJECTS = 200;
 
-	private final List<Consumer<MavenProject>> projectParsedListeners = new ArrayList<>();
+	/**
+	 * Number of most recently used documents whose projects are pinned. lemminx
+	 * doesn't tell extensions when a document is closed, so the least recently
+	 * used one is unpinned instead.
+	 */
+	private static final int MAX_PINNED_PROJECTS = 16;
+
+	/**
+	 * A project built from the file on disk, valid as long as the file isn't
+	 * modified.
+	 */
+	private static final class SnapshotProject {
+		final MavenProject project;
+		final long lastModified;
+
+		SnapshotProject(MavenProject project, long lastModified) {
+			this.project = project;
+			this.lastModified = lastModified;
+		}
+	}
 
+	/**
+	 * A built project to store, with the content of the POM it was built from and
+	 * the GAVs of the parents and imported BOMs it used
+	 */
+	private static final class PendingModel {
+		final String content;
+		final MavenProject project;
+		final Set<String> modelGavs;
+		final File localRepository;
+		final long buildTime = System.currentTimeMillis();
+
+		PendingModel(String content, MavenProject project, Set<String> modelGavs, File localRepository) {
+			this.content = content;
+			this.project = project;
+			this.modelGavs = modelGavs;
+			this.localRepository = localRepository;
+		}
+	}
+
+	/**
+	 * The local repository and resolution session used to build projects
+	 */
+	private static final class RepositorySession {
+		final ArtifactRepository localRepository;
+		final DefaultRepositorySystemSession session;
+
+		RepositorySession(ArtifactRepository localRepository, DefaultRepositorySystemSession session) {
+			this.localRepository = localRepository;
+			this.session = session;
+		}
+	}
+
+	/**
+	 * A build of a given document version. Concurrent callers asking for the same
+	 * (or an older) version share the same job instead of starting a new build.
+	 */
+	private static final class BuildJob {
+		final DOMDocument document;
+		final int version;
+		final CompletableFuture<Void> result = new CompletableFuture<>();
+		final AtomicBoolean started = new AtomicBoolean();
+
+		BuildJob(DOMDocument document, int version) {
+			this.document = document;
+			this.version = version;
+		}
+	}
+
+	/**
+	 * Looks up the Maven components right away, the container being already
+	 * available.
+	 */
 	public MavenProjectCache(PlexusContainer container) {
+		this(CompletableFuture.completedFuture(container), null, new LocalRepositoryLocator());
+		initialize();
+	}
+
+	/**
+	 * @param container              container being created, builds wait for it
+	 * @param modelStoreDirectory    directory where effective models are
+	 *                               persisted to be available right after a
+	 *                               restart, or <code>null</code> to not persist
+	 *                               them
+	 * @param localRepositoryLocator finds the local repository of each project
+	 */
+	public MavenProjectCache(CompletableFuture<PlexusContainer> container, File modelStoreDirectory,
+			LocalRepositoryLocator localRepositoryLocator) {
 		this.plexusContainer = container;
-		this.lastCheckedVersion = new HashMap<URI, Integer>();
-		this.projectCache = new HashMap<URI, MavenProject>();
-		this.problemCache = new HashMap<URI, Collection<ModelProblem>>();
+		this.localRepositoryLocator = localRepositoryLocator;
+		this.modelStore = modelStoreDirectory != null ? new EffectiveModelStore(modelStoreDirectory) : null;
+		this.lastCheckedVersion = new ConcurrentHashMap<URI, Integer>();
+		this.projectCache = new BoundedSoftCache<URI, MavenProject>(MAX_CACHED_PROJECTS);
+		this.snapshotCache = new BoundedSoftCache<File, SnapshotProject>(MAX_CACHED_PROJECTS);
+		this.problemCache = new ConcurrentHashMap<URI, Collection<ModelProblem>>();
+		this.pendingBuilds = new ConcurrentHashMap<URI, BuildJob>();
+		this.buildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Maven project builder");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.modelStoreExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Maven effective model store");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		});
+		if (modelStore != null) {
+			modelStoreExecutor.execute(modelStore::removeVanishedEntries);
+		}
 	}
 
 	/**
+	 * Doesn't wait for the build of the provided document version: a build is
+	 * scheduled in background and the last successfully built project is returned
+	 * right away, or the project stored on a former session for this content.
+	 * Only when there's neither does the call block until the first build
+	 * completes, which includes waiting for the Maven components at startup.
 	 * 
 	 * @param document
 	 * @return the last MavenDocument that could be build for the more recent
@@ -87,27 +273,215 @@ public class MavenProjectCache {
 	 *         <code>null</code>.
 	 */
 	public MavenProject getLastSuccessfulMavenProject(DOMDocument document) {
-		check(document);
-		return projectCache.get(URI.create(document.getTextDocument().getUri()));
+		URI uri = URI.create(document.getTextDocument().getUri());
+		MavenProject project = projectCache.get(uri);
+		if (project == null) {
+			project = loadStoredProject(uri, document);
+			if (project != null) {
+				// good enough until the document is built
+				pin(uri);
+				projectCache.put(uri, project);
+				scheduleBuild(document, 0);
+				return project;
+			}
+			check(document);
+			return projectCache.get(uri);
+		}
+		scheduleBuild(document, BUILD_DEBOUNCE_DELAY_MS);
+		return project;
 	}
 
 	/**
+	 * Waits for the debounced build of the given version of the document, so
+	 * that its problems are published as soon as it completes. Stops waiting as
+	 * soon as the validation is cancelled, when a newer version gets validated.
 	 * 
 	 * @param document
+	 * @param cancelChecker checker of the validation, can be <code>null</code>
 	 * @return the problems for the latest version of the document (either in cache,
 	 *         or the one passed in arguments)
 	 */
-	public Collection<ModelProblem> getProblemsFor(DOMDocument document) {
-		check(document);
+	public Collection<ModelProblem> getProblemsFor(DOMDocument document, CancelChecker cancelChecker) {
+		BuildJob job = scheduleBuild(document, BUILD_DEBOUNCE_DELAY_MS);
+		if (job != null) {
+			await(job, cancelChecker);
+		}
 		return problemCache.get(URI.create(document.getTextDocument().getUri()));
 	}
 
+	private static void await(BuildJob job, CancelChecker cancelChecker) {
+		while (!job.result.isDone()) {
+			if (cancelChecker != null) {
+				cancelChecker.checkCanceled();
+			}
+			try {
+				job.result.get(CANCEL_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// check cancellation again
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				return;
+			}
+		}
+	}
+
 	private void check(DOMDocument document) {
-		Integer last = lastCheckedVersion.get(URI.create(document.getTextDocument().getUri()));
-		if (last == null || last.intValue() < document.getTextDocument().getVersion()) {
-			parseAndCache(document);
+		BuildJob job = scheduleBuild(document, 0);
+		if (job != null) {
+			job.result.join();
+		}
+	}
+
+	private boolean isUpToDate(URI uri, int version) {
+		Integer last = lastCheckedVersion.get(uri);
+		return last != null && last.intValue() >= version;
+	}
+
+	/**
+	 * Schedules a build of the given document on the build executor, replacing a
+	 * pending build of an older version if any.
+	 * 
+	 * @param document
+	 * @param delay    milliseconds to wait before building, so that successive
+	 *                 edits only trigger one build. 0 builds as soon as possible,
+	 *                 also expediting a pending debounced build of the same
+	 *                 version.
+	 * @return the job building this version of the document, or <code>null</code>
+	 *         if it's already up-to-date
+	 */
+	private BuildJob scheduleBuild(DOMDocument document, long delay) {
+		URI uri = URI.create(document.getTextDocument().getUri());
+		int version = document.getTextDocument().getVersion();
+		pin(uri);
+		if (isUpToDate(uri, version)) {
+			return null;
+		}
+		BuildJob newJob = new BuildJob(document, version);
+		BuildJob job = pendingBuilds.compute(uri, (key, current) -> {
+			if (current != null && current.version >= version) {
+				return current;
+			}
+			if (current != null && current.started.compareAndSet(false, true)) {
+				// never started, callers waiting for it get the newer result
+				newJob.result.whenComplete((ok, error) -> current.result.complete(null));
+			}
+			return newJob;
+		});
+		if (job == newJob) {
+			buildExecutor.schedule(() -> runBuild(uri, job), delay, TimeUnit.MILLISECONDS);
+		} else if (delay == 0 && !job.started.get()) {
+			buildExecutor.execute(() -> runBuild(uri, job));
+		}
+		return job;
+	}
+
+	/**
+	 * Pins the project of the document, unpinning the least recently used one
+	 * if too many are pinned.
+	 */
+	private void pin(URI uri) {
+		synchronized (pinnedProjects) {
+			if (pinnedProjects.put(uri, Boolean.TRUE) != null) {
+				return;
+			}
+			projectCache.pin(uri);
+			if (pinnedProjects.size() > MAX_PINNED_PROJECTS) {
+				Iterator<URI> leastRecentlyUsed = pinnedProjects.keySet().iterator();
+				projectCache.unpin(leastRecentlyUsed.next());
+				leastRecentlyUsed.remove();
+			}
+		}
+	}
+
+	private void runBuild(URI uri, BuildJob job) {
+		if (!job.started.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			if (!isUpToDate(uri, job.version)) {
+				String fingerprint = ModelFingerprint.compute(job.document);
+				if (fingerprint != null && reuseUnchangedProject(uri, job.version, fingerprint)) {
+					skippedBuildCount.incrementAndGet();
+				} else {
+					parseAndCache(job.document);
+					buildCount.incrementAndGet();
+					if (fingerprint != null) {
+						fingerprints.put(uri, fingerprint);
+					}
+				}
+			}
+		} catch (RuntimeException e) {
+			e.printStackTrace();
+		} finally {
+			pendingBuilds.remove(uri, job);
+			job.result.complete(null);
+		}
+	}
+
+	/**
+	 * @return hit, miss and eviction counts of the cache of projects built for
+	 *         documents
+	 */
+	public BoundedSoftCache.Statistics getProjectCacheStatistics() {
+		return projectCache.getStatistics();
+	}
 
+	/**
+	 * @return hit, miss and eviction counts of the cache of projects built from
+	 *         files on disk through {@link #getSnapshotProject(File)}
+	 */
+	public BoundedSoftCache.Statistics getSnapshotCacheStatistics() {
+		return snapshotCache.getStatistics();
+	}
+
+	/**
+	 * Marks the given version of the document as built with the current project
+	 * and problems if its structure didn't change since they were built. Not done
+	 * if problems have locations, as those may have moved.
+	 */
+	private boolean reuseUnchangedProject(URI uri, int version, String fingerprint) {
+		if (!fingerprint.equals(fingerprints.get(uri)) || projectCache.get(uri) == null) {
+			return false;
 		}
+		Collection<ModelProblem> problems = problemCache.get(uri);
+		if (problems == null || problems.stream().anyMatch(problem -> problem.getLineNumber() > 0)) {
+			return false;
+		}
+		cacheProblems(uri, version, problems);
+		return true;
+	}
+
+	/**
+	 * @return the cache of parent and imported models shared by the builds
+	 */
+	public SharedModelCache getSharedModelCache() {
+		return sharedModelCache;
+	}
+
+	/**
+	 * @return number of document builds that ran the project builder
+	 */
+	public long getBuildCount() {
+		return buildCount.get();
+	}
+
+	/**
+	 * @return number of document builds skipped because only formatting,
+	 *         comments or descriptive elements changed
+	 */
+	public long getSkippedBuildCount() {
+		return skippedBuildCount.get();
+	}
+
+	public void stop() {
+		buildExecutor.shutdownNow();
+		modelStoreExecutor.shutdownNow();
+		storePendingModels();
+		sharedModelCache.clear();
+		pendingBuilds.values().forEach(job -> job.result.complete(null));
+		pendingBuilds.clear();
 	}
 
 	public Optional<MavenProject> getSnapshotProject(File file) {
@@ -115,85 +489,102 @@ public class MavenProjectCache {
 		if (lastKnownVersionMavenProject != null) {
 			return Optional.of(lastKnownVersionMavenProject);
 		}
-		if (mavenRequest == null) {
+		long lastModified = file.lastModified();
+		SnapshotProject snapshot = snapshotCache.get(file);
+		if (snapshot != null && snapshot.lastModified == lastModified) {
+			return Optional.of(snapshot.project);
+		}
+		String content = null;
+		if (modelStore != null) {
 			try {
-				initializeMavenBuildState();
-			} catch (ComponentLookupException | InvalidRepositoryException e) {
-				// TODO Auto-generated catch block
+				content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+				Optional<Model> storedModel = modelStore.load(file, Hashes.sha1(content));
+				if (storedModel.isPresent()) {
+					MavenProject project = toProject(storedModel.get(), file);
+					cacheSnapshot(file, project, lastModified, snapshot);
+					return Optional.of(project);
+				}
+			} catch (IOException e) {
 				e.printStackTrace();
 			}
 		}
-		ProjectBuildingRequest request = new DefaultProjectBuildingRequest();
-		request.setLocalRepository(mavenRequest.getLocalRepository());
-		request.setRepositorySession(getRepositorySystemSession());
+		initialize();
+		ProjectBuildingRequest request = newProjectBuildingRequest(file);
+		buildLocalRepository.set(toFile(request.getLocalRepository()));
+		MavenProject project = null;
+		boolean built = false;
+		Set<String> modelGavs;
+		sharedModelCache.startRecording();
 		try {
-			MavenProject project = projectBuilder.build(file, request).getProject();
-			return Optional.of(project);
+			project = projectBuilder.build(file, request).getProject();
+			built = true;
 		} catch (ProjectBuildingException e) {
 			List<ProjectBuildingResult> result = e.getResults();
-			if (result != null && result.size() == 1 && result.get(0).getProject() != null) {
-				MavenProject project = result.get(0).getProject();
-				return Optional.of(project);
+			if (result != null && result.size() == 1) {
+				project = result.get(0).getProject();
 			}
+		} finally {
+			modelGavs = sharedModelCache.stopRecording();
+			buildLocalRepository.remove();
+		}
+		if (project == null) {
+			return Optional.empty();
+		}
+		cacheSnapshot(file, project, lastModified, snapshot);
+		if (built && content != null) {
+			storeLater(file, content, project, modelGavs);
+		}
+		return Optional.of(project);
+	}
+
+	/**
+	 * Caches the project read from the file. Projects depending on it are only
+	 * invalidated if the file was modified since its previous snapshot: a file
+	 * read for the first time, such as a parent, didn't change anything.
+	 * 
+	 * @param previous the previous snapshot of the file, <code>null</code> if
+	 *                 there's none
+	 */
+	private void cacheSnapshot(File file, MavenProject project, long lastModified, SnapshotProject previous) {
+		snapshotCache.put(file, new SnapshotProject(project, lastModified));
+		if (previous != null && previous.lastModified != lastModified) {
+			projectChanged(file.toURI(), project);
+		} else {
+			registerProject(file.toURI(), project);
 		}
-		return Optional.empty();
 	}
 
 	private void parseAndCache(DOMDocument document) {
 		URI uri = URI.create(document.getDocumentURI());
+		int version = document.getTextDocument().getVersion();
 		Collection<ModelProblem> problems = new ArrayList<ModelProblem>();
+		MavenProject builtProject = null;
+		Set<String> modelGavs;
 		try {
-			if (mavenRequest == null) {
-				initializeMavenBuildState();
-			}
-			ProjectBuildingRequest request = new DefaultProjectBuildingRequest();
-			request.setLocalRepository(mavenRequest.getLocalRepository());
-			request.setRepositorySession(getRepositorySystemSession());
-			ProjectBuildingResult buildResult = projectBuilder.build(new FileModelSource(new File(uri)) {
-				@Override
-				public InputStream getInputStream() throws IOException {
-					return new ByteArrayInputStream(document.getText().getBytes());
-				}
-			}, request);
+			initialize();
+			ProjectBuildingRequest request = newProjectBuildingRequest(new File(uri));
+			buildLocalRepository.set(toFile(request.getLocalRepository()));
+			sharedModelCache.startRecording();
+			ProjectBuildingResult buildResult = projectBuilder.build(new DOMModelSource(new File(uri), document), request);
 			problems.addAll(buildResult.getProblems());
 			if (buildResult.getProject() != null) {
 				// setFile should ideally be invoked during project build, but related methods to pass modelSource and pomFile are private
 				buildResult.getProject().setFile(new File(uri));
-				projectCache.put(uri, buildResult.getProject());
-				projectParsedListeners.forEach(listener -> listener.accept(buildResult.getProject()));
+				cacheProject(uri, version, buildResult.getProject());
+				builtProject = buildResult.getProject();
 			}
 		} catch (ProjectBuildingException e) {
 			if (e.getResults() == null) {
 				if (e.getCause() instanceof ModelBuildingException) {
 					ModelBuildingException modelBuildingException = (ModelBuildingException) e.getCause();
 					problems.addAll(modelBuildingException.getProblems());
-					File workingCopy = null;
 					try {
 						File file = new File(uri);
-						workingCopy = File.createTempFile("workingCopy", '.' + file.getName(), file.getParentFile());
-						Files.write(workingCopy.toPath(), document.getText().getBytes(), StandardOpenOption.CREATE);
-						Model model = mavenReader.read(new FileReader(workingCopy));
-						MavenProject project = new MavenProject(model);
-						project.setRemoteArtifactRepositories(model.getRepositories().stream()
-								.map(repo -> new MavenArtifactRepository(repo.getId(), repo.getUrl(),
-										new DefaultRepositoryLayout(),
-										new ArtifactRepositoryPolicy(true,
-												ArtifactRepositoryPolicy.UPDATE_POLICY_INTERVAL,
-												ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN),
-										new ArtifactRepositoryPolicy(true,
-												ArtifactRepositoryPolicy.UPDATE_POLICY_INTERVAL,
-												ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN)))
-								.distinct().collect(Collectors.toList()));
-						project.setFile(file);
-						project.setBuild(new Build());
-						projectCache.put(uri, project);
-						projectParsedListeners.forEach(listener -> listener.accept(project));
-					} catch (IOException | XmlPullParserException e1) {
+						Model model = DOMModelProcessor.read(document, true, null);
+						MavenProject project = toRawProject(model, file);
+						cacheProject(uri, version, project);
+					} catch (IOException e1) {
 						e1.printStackTrace();
-					} finally {
-						if (workingCopy != null) {
-							workingCopy.delete();
-						}
 					}
 				} else {
 					problems.add(
@@ -205,55 +596,312 @@ public class MavenProjectCache {
 					MavenProject project = e.getResults().get(0).getProject();
 					if (project != null) {
 						project.setFile(new File(uri));
-						projectCache.put(uri, project);
-						projectParsedListeners.forEach(listener -> listener.accept(project));
+						cacheProject(uri, version, project);
 					}
 				}
 			}
-		} catch (ComponentLookupException | InvalidRepositoryException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+		} finally {
+			modelGavs = sharedModelCache.stopRecording();
+			buildLocalRepository.remove();
+		}
+		if (builtProject != null && modelStore != null && "file".equals(uri.getScheme())) {
+			storeLater(new File(uri), document.getText(), builtProject, modelGavs);
+		}
+
+		cacheProblems(uri, version, problems);
+	}
+
+	/**
+	 * Schedules the storage of the project, coalesced with the other builds of
+	 * the next {@link #MODEL_STORE_DELAY_MS} on a low priority thread.
+	 */
+	private void storeLater(File pomFile, String content, MavenProject project, Set<String> modelGavs) {
+		if (modelStore == null) {
+			return;
+		}
+		pendingModels.put(pomFile, new PendingModel(content, project, modelGavs, buildLocalRepository.get()));
+		if (modelStoreScheduled.compareAndSet(false, true)) {
+			try {
+				modelStoreExecutor.schedule(this::storePendingModels, MODEL_STORE_DELAY_MS, TimeUnit.MILLISECONDS);
+			} catch (RejectedExecutionException e) {
+				// stopped, pending models were stored
+				modelStoreScheduled.set(false);
+			}
+		}
+	}
+
+	private void storePendingModels() {
+		modelStoreScheduled.set(false);
+		for (File pomFile : new ArrayList<>(pendingModels.keySet())) {
+			PendingModel pending = pendingModels.remove(pomFile);
+			if (pending == null) {
+				continue;
+			}
+			List<File> modelFiles = pending.modelGavs.stream().map(gav -> findPomFile(gav, pending.localRepository))
+					.filter(file -> file != null && file.isFile() && !file.equals(pomFile)).collect(Collectors.toList());
+			if (modelFiles.stream().anyMatch(file -> file.lastModified() > pending.buildTime)) {
+				// built from a former version of a parent or BOM
+				continue;
+			}
+			modelStore.store(pomFile, Hashes.sha1(pending.content), pending.project, modelFiles);
+		}
+	}
+
+	/**
+	 * @return the project stored for this version of the document on a former
+	 *         session, if any
+	 */
+	private MavenProject loadStoredProject(URI uri, DOMDocument document) {
+		if (modelStore == null || !"file".equals(uri.getScheme())) {
+			return null;
+		}
+		File file = new File(uri);
+		return modelStore.load(file, Hashes.sha1(document.getText()))
+				.map(model -> toProject(model, file)).orElse(null);
+	}
+
+	/**
+	 * @return a project for a model that couldn't be built, with only what the
+	 *         model itself declares
+	 */
+	private static MavenProject toRawProject(Model model, File file) {
+		MavenProject project = toProject(model, file);
+		project.setBuild(new Build());
+		return project;
+	}
+
+	/**
+	 * @return a project for the given model, without building it
+	 */
+	private static MavenProject toProject(Model model, File file) {
+		MavenProject project = new MavenProject(model);
+		project.setRemoteArtifactRepositories(model.getRepositories().stream()
+				.map(repo -> new MavenArtifactRepository(repo.getId(), repo.getUrl(),
+						new DefaultRepositoryLayout(),
+						new ArtifactRepositoryPolicy(true,
+								ArtifactRepositoryPolicy.UPDATE_POLICY_INTERVAL,
+								ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN),
+						new ArtifactRepositoryPolicy(true,
+								ArtifactRepositoryPolicy.UPDATE_POLICY_INTERVAL,
+								ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN)))
+				.distinct().collect(Collectors.toList()));
+		project.setFile(file);
+		return project;
+	}
+
+	/**
+	 * Stores the project unless a build of a newer version of the document already
+	 * completed, in which case the result of this stale build is dropped.
+	 */
+	private void cacheProject(URI uri, int version, MavenProject project) {
+		boolean[] accepted = new boolean[1];
+		lastCheckedVersion.compute(uri, (key, last) -> {
+			if (last == null || last.intValue() < version) {
+				projectCache.put(uri, project);
+				accepted[0] = true;
+			}
+			return last;
+		});
+		if (accepted[0]) {
+			projectChanged(uri, project);
+			projectParsedListeners.forEach(listener -> listener.accept(project));
+		}
+	}
+
+	/**
+	 * Drops the cached models of the given project, and the projects inheriting
+	 * from it, so that they get rebuilt with its new content.
+	 */
+	private void projectChanged(URI uri, MavenProject project) {
+		registerProject(uri, project);
+		sharedModelCache.invalidate(project.getGroupId(), project.getArtifactId(), project.getVersion());
+		Set<URI> children = dependentProjects.get(
+				SharedModelCache.toGAV(project.getGroupId(), project.getArtifactId(), project.getVersion()));
+		if (children != null) {
+			children.stream().filter(child -> !child.equals(uri)).forEach(this::invalidate);
+		}
+	}
+
+	/**
+	 * Records where the project and its parents are, and that it depends on its
+	 * parents.
+	 */
+	private void registerProject(URI uri, MavenProject project) {
+		String gav = SharedModelCache.toGAV(project.getGroupId(), project.getArtifactId(), project.getVersion());
+		if (project.getFile() != null) {
+			knownPomFiles.put(gav, project.getFile());
+		}
+		workspaceReader.addProject(project);
+		for (MavenProject parent = project.getParent(); parent != null; parent = parent.getParent()) {
+			String parentGav = SharedModelCache.toGAV(parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+			if (parent.getFile() != null) {
+				knownPomFiles.put(parentGav, parent.getFile());
+			}
+			dependentProjects.computeIfAbsent(parentGav, key -> ConcurrentHashMap.newKeySet()).add(uri);
+		}
+	}
+
+	private void invalidate(URI uri) {
+		lastCheckedVersion.remove(uri);
+		fingerprints.remove(uri);
+		if ("file".equals(uri.getScheme())) {
+			snapshotCache.remove(new File(uri));
+		}
+	}
+
+	/**
+	 * @return the POM file of the GAV in the workspace, or else in the local
+	 *         repository of the build running on the current thread
+	 */
+	private File findPomFile(String gav) {
+		return findPomFile(gav, buildLocalRepository.get());
+	}
+
+	/**
+	 * @param localRepository the local repository the model was read from, or
+	 *                        <code>null</code> for the default one
+	 */
+	private File findPomFile(String gav, File localRepository) {
+		File pomFile = knownPomFiles.get(gav);
+		if (pomFile != null) {
+			return pomFile;
+		}
+		if (localRepository == null) {
+			localRepository = toFile(localRepo);
+			if (localRepository == null) {
+				return null;
+			}
 		}
+		String[] segments = gav.split(":");
+		return new File(localRepository, segments[0].replace('.', File.separatorChar) + File.separatorChar + segments[1]
+				+ File.separatorChar + segments[2] + File.separatorChar + segments[1] + '-' + segments[2] + ".pom");
+	}
+
+	private static File toFile(ArtifactRepository repository) {
+		return repository != null ? new File(repository.getBasedir()) : null;
+	}
 
-		lastCheckedVersion.put(uri, document.getTextDocument().getVersion());
-		problemCache.put(uri, problems);
+	private void cacheProblems(URI uri, int version, Collection<ModelProblem> problems) {
+		lastCheckedVersion.compute(uri, (key, last) -> {
+			if (last == null || last.intValue() < version) {
+				problemCache.put(uri, problems);
+				return version;
+			}
+			return last;
+		});
 	}
 
-	private void initializeMavenBuildState() throws ComponentLookupException, InvalidRepositoryException {
+	private synchronized void initializeMavenBuildState() throws ComponentLookupException, InvalidRepositoryException {
 		if (mavenRequest != null) {
 			return;
 		}
+		// must happen before ModelBuilder and ProjectBuilder are instantiated so they get these replacements
+		ModelProcessor modelProcessor = getPlexusContainer().lookup(ModelProcessor.class);
+		getPlexusContainer().addComponent(new DOMModelProcessor(modelProcessor), ModelProcessor.class, "default");
+		ModelBuilder modelBuilder = getPlexusContainer().lookup(ModelBuilder.class);
+		getPlexusContainer().addComponent(new CachingModelBuilder(modelBuilder, sharedModelCache), ModelBuilder.class, "default");
 		projectBuilder = getPlexusContainer().lookup(ProjectBuilder.class);
-		mavenRequest = new DefaultMavenExecutionRequest();
-		mavenRequest.setLocalRepositoryPath(RepositorySystem.defaultUserLocalRepository);
+		pluginManager = getPlexusContainer().lookup(MavenPluginManager.class);
 		repositorySystem = getPlexusContainer().lookup(RepositorySystem.class);
-		localRepo = repositorySystem.createDefaultLocalRepository();
-		mavenRequest.setLocalRepository(getLocalRepository());
-		DefaultRepositorySystemSessionFactory repositorySessionFactory = getPlexusContainer().lookup(DefaultRepositorySystemSessionFactory.class);
-		repositorySystemSession = repositorySessionFactory.newRepositorySession(mavenRequest);
+		repositorySessionFactory = getPlexusContainer().lookup(DefaultRepositorySystemSessionFactory.class);
+		MavenExecutionRequest request = newExecutionRequest(localRepositoryLocator.getDefaultLocalRepository());
+		localRepo = request.getLocalRepository();
+		repositorySystemSession = newRepositorySession(request);
+		// published last so that concurrent readers never see a partially initialized state
+		mavenRequest = request;
 	}
 	
-	public RepositorySystem getRepositorySystem() {
+	private MavenExecutionRequest newExecutionRequest(File localRepository) throws InvalidRepositoryException {
+		MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+		request.setLocalRepositoryPath(localRepository);
+		request.setLocalRepository(repositorySystem.createLocalRepository(localRepository));
+		return request;
+	}
+
+	private DefaultRepositorySystemSession newRepositorySession(MavenExecutionRequest request) {
+		DefaultRepositorySystemSession session = repositorySessionFactory.newRepositorySession(request);
+		// resolve modules of the workspace from their sources rather than from the local repository
+		session.setWorkspaceReader(workspaceReader);
+		return session;
+	}
+
+	/**
+	 * @return a request to build the project with the local repository it's
+	 *         configured with
+	 */
+	private ProjectBuildingRequest newProjectBuildingRequest(File pomFile) {
+		RepositorySession repositorySession = getRepositorySession(pomFile);
+		ProjectBuildingRequest request = new DefaultProjectBuildingRequest();
+		request.setLocalRepository(repositorySession.localRepository);
+		request.setRepositorySession(repositorySession.session);
+		return request;
+	}
+
+	private RepositorySession getRepositorySession(File pomFile) {
+		initialize();
+		File localRepository = pomFile != null ? localRepositoryLocator.getLocalRepository(pomFile)
+				: localRepositoryLocator.getDefaultLocalRepository();
+		if (localRepository.equals(localRepositoryLocator.getDefaultLocalRepository())) {
+			return new RepositorySession(localRepo, repositorySystemSession);
+		}
+		return projectRepositorySessions.computeIfAbsent(localRepository, directory -> {
+			try {
+				MavenExecutionRequest request = newExecutionRequest(directory);
+				return new RepositorySession(request.getLocalRepository(), newRepositorySession(request));
+			} catch (InvalidRepositoryException e) {
+				e.printStackTrace();
+				return new RepositorySession(localRepo, repositorySystemSession);
+			}
+		});
+	}
+
+	/**
+	 * Looks up the Maven components needed for builds, so that it doesn't have
+	 * to happen when the first document is built. Blocks until the container is
+	 * available.
+	 */
+	public void initialize() {
+		if (isInitialized()) {
+			return;
+		}
 		try {
 			initializeMavenBuildState();
 		} catch (ComponentLookupException | InvalidRepositoryException e) {
 			e.printStackTrace();
 		}
+	}
+
+	/**
+	 * @return whether the Maven components are ready, so that projects can be
+	 *         built without waiting for them
+	 */
+	public boolean isInitialized() {
+		return mavenRequest != null;
+	}
+
+	public RepositorySystem getRepositorySystem() {
+		initialize();
 		return this.repositorySystem;
 	}
 
 
 	public ArtifactRepository getLocalRepository() {
-		try {
-			initializeMavenBuildState();
-		} catch (ComponentLookupException | InvalidRepositoryException e) {
-			e.printStackTrace();
-		}
+		initialize();
 		return localRepo;
 	}
 
 	public PlexusContainer getPlexusContainer() {
-		return plexusContainer;
+		return plexusContainer.join();
+	}
+
+	/**
+	 * Doesn't wait for the Maven components to be initialized.
+	 * 
+	 * @return the plugin manager, or <code>null</code> until the Maven components
+	 *         are initialized
+	 */
+	public MavenPluginManager getPluginManager() {
+		return isInitialized() ? pluginManager : null;
 	}
 
 	public void addProjectParsedListener(Consumer<MavenProject> listener) {
@@ -261,12 +909,17 @@ public class MavenProjectCache {
 	}
 
 	public DefaultRepositorySystemSession getRepositorySystemSession() {
-		try {
-			initializeMavenBuildState();
-		} catch (ComponentLookupException | InvalidRepositoryException e) {
-			e.printStackTrace();
-		}
+		initialize();
 		return repositorySystemSession;
 	}
 
+	/**
+	 * @param pomFile the POM of the project, can be <code>null</code>
+	 * @return the session resolving artifacts in the local repository of the
+	 *         project
+	 */
+	public DefaultRepositorySystemSession getRepositorySystemSession(File pomFile) {
+		return getRepositorySession(pomFile).session;
+	}
+
 }
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.Maven;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.repository.WorkspaceReader;
+import org.eclipse.aether.repository.WorkspaceRepository;
+
+/**
+ * Resolves artifacts of the projects known to the {@link MavenProjectCache},
+ * and of the modules they declare, from the workspace instead of the local or
+ * remote repositories. Projects are indexed by <code>groupId:artifactId</code>
+ * then version.
+ */
+public class MavenProjectWorkspaceReader implements WorkspaceReader {
+
+	private static final class WorkspaceProject {
+		final String groupIdArtifactId;
+		final String version;
+		final File pomFile;
+		final File outputDirectory;
+
+		WorkspaceProject(String groupId, String artifactId, String version, File pomFile, File outputDirectory) {
+			this.groupIdArtifactId = groupId + ':' + artifactId;
+			this.version = version;
+			this.pomFile = pomFile;
+			this.outputDirectory = outputDirectory;
+		}
+	}
+
+	private final WorkspaceRepository repository = new WorkspaceRepository("lemminx-maven");
+	private final Map<String, Map<String, WorkspaceProject>> projects = new ConcurrentHashMap<>();
+	private final Map<File, WorkspaceProject> projectsByFile = new ConcurrentHashMap<>();
+
+	@Override
+	public WorkspaceRepository getRepository() {
+		return repository;
+	}
+
+	@Override
+	public File findArtifact(Artifact artifact) {
+		WorkspaceProject project = find(artifact);
+		if (project == null) {
+			return null;
+		}
+		if ("pom".equals(artifact.getExtension())) {
+			return project.pomFile;
+		}
+		if ("jar".equals(artifact.getExtension()) && artifact.getClassifier().isEmpty()
+				&& project.outputDirectory != null && project.outputDirectory.isDirectory()) {
+			return project.outputDirectory;
+		}
+		return null;
+	}
+
+	@Override
+	public List<String> findVersions(Artifact artifact) {
+		Map<String, WorkspaceProject> versions = projects.get(artifact.getGroupId() + ':' + artifact.getArtifactId());
+		return versions != null ? new ArrayList<>(versions.keySet()) : Collections.emptyList();
+	}
+
+	private WorkspaceProject find(Artifact artifact) {
+		Map<String, WorkspaceProject> versions = projects.get(artifact.getGroupId() + ':' + artifact.getArtifactId());
+		if (versions == null) {
+			return null;
+		}
+		WorkspaceProject project = versions.get(artifact.getVersion());
+		if (project == null) {
+			project = versions.get(artifact.getBaseVersion());
+		}
+		return project != null && project.pomFile.isFile() ? project : null;
+	}
+
+	/**
+	 * Indexes the project, and the modules it declares that aren't known yet.
+	 */
+	public void addProject(MavenProject project) {
+		if (project.getFile() == null || project.getGroupId() == null || project.getArtifactId() == null
+				|| project.getVersion() == null) {
+			return;
+		}
+		File outputDirectory = project.getBuild() != null && project.getBuild().getOutputDirectory() != null
+				? new File(project.getBuild().getOutputDirectory())
+				: null;
+		add(new WorkspaceProject(project.getGroupId(), project.getArtifactId(), project.getVersion(),
+				project.getFile(), outputDirectory));
+		for (String module : project.getModules()) {
+			File moduleFile = new File(project.getFile().getParentFile(), module);
+			if (moduleFile.isDirectory()) {
+				moduleFile = new File(moduleFile, Maven.POMv4);
+			}
+			if (moduleFile.isFile() && !projectsByFile.containsKey(moduleFile)) {
+				addModule(moduleFile);
+			}
+		}
+	}
+
+	/**
+	 * Indexes a module from its raw model, so it's resolvable before it's built.
+	 */
+	private void addModule(File pomFile) {
+		try (Reader reader = Files.newBufferedReader(pomFile.toPath(), StandardCharsets.UTF_8)) {
+			Model model = new MavenXpp3Reader().read(reader, false);
+			String groupId = model.getGroupId() != null || model.getParent() == null ? model.getGroupId()
+					: model.getParent().getGroupId();
+			String version = model.getVersion() != null || model.getParent() == null ? model.getVersion()
+					: model.getParent().getVersion();
+			if (groupId == null || model.getArtifactId() == null || version == null || version.contains("${")) {
+				return;
+			}
+			add(new WorkspaceProject(groupId, model.getArtifactId(), version, pomFile,
+					new File(pomFile.getParentFile(), "target" + File.separator + "classes")));
+		} catch (IOException | XmlPullParserException e) {
+			// not a valid module, ignore it
+		}
+	}
+
+	private void add(WorkspaceProject project) {
+		WorkspaceProject former = projectsByFile.put(project.pomFile, project);
+		if (former != null && !(former.groupIdArtifactId.equals(project.groupIdArtifactId)
+				&& former.version.equals(project.version))) {
+			Map<String, WorkspaceProject> versions = projects.get(former.groupIdArtifactId);
+			if (versions != null) {
+				versions.remove(former.version, former);
+			}
+		}
+		projects.computeIfAbsent(project.groupIdArtifactId, key -> new ConcurrentHashMap<>()).put(project.version,
+				project);
+	}
+}
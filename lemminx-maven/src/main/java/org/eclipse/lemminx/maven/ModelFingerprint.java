@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+import org.eclipse.lemminx.dom.DOMAttr;
+import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.dom.DOMElement;
+import org.eclipse.lemminx.dom.DOMNode;
+import org.w3c.dom.Node;
+
+/**
+ * Computes a hash of the structure of a POM that matters to the effective
+ * model: elements, attributes and trimmed text values. Comments, formatting
+ * and purely descriptive elements of the project don't change it, so edits of
+ * those don't require rebuilding the project.
+ */
+public class ModelFingerprint {
+
+	/**
+	 * Children of <code>project</code> that don't influence anything but
+	 * themselves, unless they're referenced through an expression.
+	 */
+	private static final Collection<String> DESCRIPTIVE_ELEMENTS = new HashSet<>(
+			Arrays.asList("description", "developers", "contributors", "mailingLists", "inceptionYear"));
+
+	private ModelFingerprint() {
+	}
+
+	/**
+	 * @return the fingerprint of the document, or <code>null</code> if it has no
+	 *         root element
+	 */
+	public static String compute(DOMDocument document) {
+		DOMElement root = document.getDocumentElement();
+		if (root == null) {
+			return null;
+		}
+		StringBuilder canonical = new StringBuilder(document.getText().length() / 2);
+		String text = document.getText();
+		append(root, canonical, text, true);
+		return Hashes.sha1(canonical.toString());
+	}
+
+	private static void append(DOMElement element, StringBuilder canonical, String documentText, boolean isRoot) {
+		canonical.append('<').append(element.getTagName());
+		if (element.getAttributeNodes() != null) {
+			for (DOMAttr attribute : element.getAttributeNodes()) {
+				canonical.append(' ').append(attribute.getName()).append('=').append(attribute.getValue());
+			}
+		}
+		canonical.append(element.isClosed() ? ">" : "?>");
+		for (DOMNode child : element.getChildren()) {
+			switch (child.getNodeType()) {
+			case Node.ELEMENT_NODE:
+				DOMElement childElement = (DOMElement) child;
+				if (isRoot && isDescriptive(childElement, documentText)) {
+					break;
+				}
+				append(childElement, canonical, documentText, false);
+				break;
+			case Node.TEXT_NODE:
+			case Node.CDATA_SECTION_NODE:
+				String value = documentText.substring(child.getStart(), child.getEnd()).trim();
+				if (!value.isEmpty()) {
+					canonical.append(value);
+				}
+				break;
+			default:
+				// comments and processing instructions don't matter
+			}
+		}
+		canonical.append("</>");
+	}
+
+	private static boolean isDescriptive(DOMElement element, String documentText) {
+		String name = element.getLocalName();
+		return DESCRIPTIVE_ELEMENTS.contains(name) && !documentText.contains("project." + name)
+				&& !documentText.contains("pom." + name);
+	}
+}
@@ -0,0 +1,278 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.maven.model.building.ModelCache;
+
+/**
+ * A {@link ModelCache} shared by all the model builds, so that parents and
+ * imported BOMs common to many modules are read, parsed and interpolated only
+ * once. Entries are checked against the modification time of the POM they come
+ * from, when it's known, and can be invalidated explicitly when a POM is
+ * edited. The least recently used entries are dropped once the cache is full.
+ */
+public class SharedModelCache implements ModelCache {
+
+	/**
+	 * Tag Maven uses for imported models (see
+	 * org.apache.maven.model.building.ModelCacheTag, not part of the API).
+	 */
+	private static final String IMPORT_TAG = "import";
+
+	private static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+	private static final class Key {
+		final String gav;
+		final String tag;
+
+		Key(String gav, String tag) {
+			this.gav = gav;
+			this.tag = tag;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(gav, tag);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return gav.equals(other.gav) && tag.equals(other.tag);
+		}
+	}
+
+	private static final class Entry {
+		final Object data;
+		final long timestamp;
+		/**
+		 * GAVs of the models this one was built from, its own included
+		 */
+		final Set<String> dependencies;
+
+		Entry(Object data, long timestamp, Set<String> dependencies) {
+			this.data = data;
+			this.timestamp = timestamp;
+			this.dependencies = dependencies;
+		}
+	}
+
+	/**
+	 * An imported model being built, collecting the models it's built from
+	 */
+	private static final class Import {
+		final String gav;
+		final Set<String> dependencies = new HashSet<>();
+
+		Import(String gav) {
+			this.gav = gav;
+		}
+	}
+
+	private final int maximumSize;
+	private final Function<String, File> pomLocator;
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	/**
+	 * Keys of the entries built from a given GAV
+	 */
+	private final Map<String, Set<Key>> dependents = new HashMap<>();
+	/**
+	 * Imported models being built by the current thread, the innermost last
+	 */
+	private final ThreadLocal<Deque<Import>> imports = ThreadLocal.withInitial(ArrayDeque::new);
+	/**
+	 * GAVs of the models used by the current thread since
+	 * {@link #startRecording()}
+	 */
+	private final ThreadLocal<Set<String>> recordedModels = new ThreadLocal<>();
+
+	/**
+	 * @param pomLocator returns the POM file of a given
+	 *                   <code>groupId:artifactId:version</code>, or
+	 *                   <code>null</code> if unknown
+	 */
+	public SharedModelCache(Function<String, File> pomLocator) {
+		this(pomLocator, DEFAULT_MAXIMUM_SIZE);
+	}
+
+	public SharedModelCache(Function<String, File> pomLocator, int maximumSize) {
+		this.pomLocator = pomLocator;
+		this.maximumSize = maximumSize;
+	}
+
+	public static String toGAV(String groupId, String artifactId, String version) {
+		return groupId + ':' + artifactId + ':' + version;
+	}
+
+	@Override
+	public void put(String groupId, String artifactId, String version, String tag, Object data) {
+		String gav = toGAV(groupId, artifactId, version);
+		Set<String> dependencies = new HashSet<>();
+		dependencies.add(gav);
+		if (IMPORT_TAG.equals(tag)) {
+			Import builtImport = endImport(gav);
+			if (builtImport != null) {
+				dependencies.addAll(builtImport.dependencies);
+			}
+		}
+		used(dependencies);
+		long timestamp = timestamp(gav);
+		synchronized (entries) {
+			Key key = new Key(gav, tag);
+			remove(key);
+			entries.put(key, new Entry(data, timestamp, dependencies));
+			dependencies.forEach(dependency -> dependents.computeIfAbsent(dependency, k -> new HashSet<>()).add(key));
+			Iterator<Map.Entry<Key, Entry>> leastRecentlyUsed = entries.entrySet().iterator();
+			while (entries.size() > maximumSize) {
+				Map.Entry<Key, Entry> evicted = leastRecentlyUsed.next();
+				leastRecentlyUsed.remove();
+				unindex(evicted.getKey(), evicted.getValue());
+			}
+		}
+	}
+
+	@Override
+	public Object get(String groupId, String artifactId, String version, String tag) {
+		String gav = toGAV(groupId, artifactId, version);
+		Entry entry;
+		synchronized (entries) {
+			entry = entries.get(new Key(gav, tag));
+		}
+		if (entry != null && entry.timestamp != timestamp(gav)) {
+			invalidate(groupId, artifactId, version);
+			entry = null;
+		}
+		if (entry == null) {
+			if (IMPORT_TAG.equals(tag)) {
+				// Maven builds it next, and puts it once built
+				imports.get().push(new Import(gav));
+			}
+			return null;
+		}
+		used(entry.dependencies);
+		return entry.data;
+	}
+
+	/**
+	 * Adds the models to the dependencies of the imported models being built
+	 */
+	private void used(Set<String> dependencies) {
+		for (Import currentImport : imports.get()) {
+			currentImport.dependencies.addAll(dependencies);
+		}
+		Set<String> recorded = recordedModels.get();
+		if (recorded != null) {
+			recorded.addAll(dependencies);
+		}
+	}
+
+	/**
+	 * Starts recording the models the builds of the current thread use, cached
+	 * or not: parents, imported BOMs and what they're built from.
+	 */
+	public void startRecording() {
+		recordedModels.set(new HashSet<>());
+	}
+
+	/**
+	 * @return the GAVs of the models used since {@link #startRecording()}
+	 */
+	public Set<String> stopRecording() {
+		Set<String> recorded = recordedModels.get();
+		recordedModels.remove();
+		return recorded != null ? recorded : Collections.emptySet();
+	}
+
+	/**
+	 * @return the imported model being built for the GAV, imports started after
+	 *         it having failed
+	 */
+	private Import endImport(String gav) {
+		Deque<Import> currentImports = imports.get();
+		if (currentImports.stream().noneMatch(currentImport -> currentImport.gav.equals(gav))) {
+			return null;
+		}
+		Import currentImport;
+		do {
+			currentImport = currentImports.pop();
+		} while (!currentImport.gav.equals(gav));
+		return currentImport;
+	}
+
+	/**
+	 * Forgets the imports the current thread started to build, called once a
+	 * model build is done.
+	 */
+	public void buildDone() {
+		imports.remove();
+	}
+
+	/**
+	 * Removes the models of the given artifact, and the models built from it
+	 * (imported BOMs inheriting from it).
+	 */
+	public void invalidate(String groupId, String artifactId, String version) {
+		synchronized (entries) {
+			Set<Key> keys = dependents.get(toGAV(groupId, artifactId, version));
+			if (keys != null) {
+				new HashSet<>(keys).forEach(this::remove);
+			}
+		}
+	}
+
+	private void remove(Key key) {
+		Entry entry = entries.remove(key);
+		if (entry != null) {
+			unindex(key, entry);
+		}
+	}
+
+	private void unindex(Key key, Entry entry) {
+		for (String dependency : entry.dependencies) {
+			Set<Key> keys = dependents.get(dependency);
+			if (keys != null && keys.remove(key) && keys.isEmpty()) {
+				dependents.remove(dependency);
+			}
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+			dependents.clear();
+		}
+	}
+
+	private long timestamp(String gav) {
+		File pomFile = pomLocator.apply(gav);
+		return pomFile != null ? pomFile.lastModified() : 0;
+	}
+}
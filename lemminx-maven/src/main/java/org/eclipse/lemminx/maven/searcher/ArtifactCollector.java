@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.apache.maven.index.ArtifactInfo;
+
+/**
+ * Collects index hits into one result per <code>groupId:artifactId</code>: its
+ * newest version, with the first description found among its versions. Hits
+ * come per version, in relevance order rather than version order, so all the
+ * hits are read up to a maximum: once <code>maxArtifacts</code> artifacts are
+ * found, hits of other artifacts are skipped but the versions of the found
+ * ones are still compared.
+ */
+public final class ArtifactCollector implements Predicate<ArtifactInfo> {
+
+	private final int maxArtifacts;
+	private final int maxHits;
+	private final VersionTable versions;
+	private final Map<String, ArtifactInfo> artifacts = new LinkedHashMap<>();
+	private int hitCount;
+
+	/**
+	 * @param maxHits  number of hits after which reading stops
+	 * @param versions parses the versions to compare
+	 */
+	public ArtifactCollector(int maxArtifacts, int maxHits, VersionTable versions) {
+		this.maxArtifacts = maxArtifacts;
+		this.maxHits = maxHits;
+		this.versions = versions;
+	}
+
+	/**
+	 * @return whether more hits can be read
+	 */
+	@Override
+	public boolean test(ArtifactInfo hit) {
+		hitCount++;
+		String key = hit.getGroupId() + ':' + hit.getArtifactId();
+		ArtifactInfo artifact = artifacts.get(key);
+		if (artifact == null) {
+			if (artifacts.size() < maxArtifacts) {
+				artifacts.put(key, hit);
+			}
+			return hitCount < maxHits;
+		}
+		String description = artifact.getDescription() != null ? artifact.getDescription() : hit.getDescription();
+		if (hit.getVersion() != null && (artifact.getVersion() == null
+				|| versions.get(hit.getVersion()).compareTo(versions.get(artifact.getVersion())) > 0)) {
+			artifacts.put(key, hit);
+			artifact = hit;
+		}
+		artifact.setDescription(description);
+		return hitCount < maxHits;
+	}
+
+	/**
+	 * @return the artifacts, in the order of their most relevant hit
+	 */
+	public Collection<ArtifactInfo> getArtifacts() {
+		return artifacts.values();
+	}
+}
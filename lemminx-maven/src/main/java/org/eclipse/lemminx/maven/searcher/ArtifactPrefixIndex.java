@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.apache.maven.index.artifact.Gav;
+
+/**
+ * Immutable prefix index of the groupIds and artifacts of a local repository.
+ * Every segment of a name is indexed (<code>org.apache.maven</code> is found
+ * with <code>org.ap</code>, <code>apache</code> or <code>mav</code>, and
+ * <code>maven-compiler-plugin</code> with <code>compiler</code>), and plugins
+ * are indexed separately, so that a lookup only visits matching entries.
+ */
+public final class ArtifactPrefixIndex {
+
+	private final SegmentIndex<String> groupIds;
+	private final SegmentIndex<String> pluginGroupIds;
+	private final SegmentIndex<Gav> artifacts;
+	private final SegmentIndex<Gav> pluginArtifacts;
+
+	/**
+	 * @param artifacts the last version of the installed artifacts
+	 * @param isPlugin  whether an artifact is a Maven plugin
+	 */
+	public ArtifactPrefixIndex(Collection<Gav> artifacts, Predicate<Gav> isPlugin) {
+		List<Gav> plugins = artifacts.stream().filter(isPlugin).collect(Collectors.toList());
+		this.artifacts = new SegmentIndex<>(new ArrayList<>(artifacts), Gav::getArtifactId, '-');
+		this.pluginArtifacts = new SegmentIndex<>(plugins, Gav::getArtifactId, '-');
+		this.groupIds = new SegmentIndex<>(artifacts.stream().map(Gav::getGroupId).collect(Collectors.toCollection(TreeSet::new)),
+				Function.identity(), '.');
+		this.pluginGroupIds = new SegmentIndex<>(plugins.stream().map(Gav::getGroupId).collect(Collectors.toCollection(TreeSet::new)),
+				Function.identity(), '.');
+	}
+
+	public Collection<String> getGroupIds(String prefix) {
+		return groupIds.find(prefix);
+	}
+
+	public Collection<String> getPluginGroupIds(String prefix) {
+		return pluginGroupIds.find(prefix);
+	}
+
+	/**
+	 * @return the artifacts whose artifactId has a segment starting with the prefix
+	 */
+	public Collection<Gav> getArtifacts(String prefix) {
+		return artifacts.find(prefix);
+	}
+
+	public Collection<Gav> getPluginArtifacts(String prefix) {
+		return pluginArtifacts.find(prefix);
+	}
+
+	/**
+	 * Sorted arrays of (value, segment offset) pairs, ordered by the
+	 * case-insensitive name of the value from the segment offset.
+	 */
+	private static final class SegmentIndex<T> {
+		private final List<T> values;
+		private final String[] names;
+		private final int[] entryValues;
+		private final int[] entryOffsets;
+
+		SegmentIndex(Collection<T> values, Function<T, String> name, char separator) {
+			this.values = new ArrayList<>(values);
+			this.names = new String[this.values.size()];
+			List<int[]> entries = new ArrayList<>();
+			for (int i = 0; i < names.length; i++) {
+				names[i] = name.apply(this.values.get(i));
+				entries.add(new int[] { i, 0 });
+				for (int offset = names[i].indexOf(separator); offset >= 0
+						&& offset < names[i].length() - 1; offset = names[i].indexOf(separator, offset + 1)) {
+					entries.add(new int[] { i, offset + 1 });
+				}
+			}
+			entries.sort((entry1, entry2) -> compare(names[entry1[0]], entry1[1], names[entry2[0]], entry2[1]));
+			entryValues = new int[entries.size()];
+			entryOffsets = new int[entries.size()];
+			for (int i = 0; i < entries.size(); i++) {
+				entryValues[i] = entries.get(i)[0];
+				entryOffsets[i] = entries.get(i)[1];
+			}
+		}
+
+		Collection<T> find(String prefix) {
+			if (prefix == null || prefix.isEmpty()) {
+				return Collections.unmodifiableList(values);
+			}
+			// lower bound: first entry not lower than the prefix
+			int low = 0;
+			int high = entryValues.length;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (compare(names[entryValues[middle]], entryOffsets[middle], prefix, 0) < 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			Set<T> res = new LinkedHashSet<>();
+			for (int i = low; i < entryValues.length && names[entryValues[i]].regionMatches(true, entryOffsets[i],
+					prefix, 0, prefix.length()); i++) {
+				res.add(values.get(entryValues[i]));
+			}
+			return res;
+		}
+
+		private static int compare(String name1, int offset1, String name2, int offset2) {
+			int length1 = name1.length() - offset1;
+			int length2 = name2.length() - offset2;
+			for (int i = 0; i < Math.min(length1, length2); i++) {
+				char c1 = Character.toLowerCase(name1.charAt(offset1 + i));
+				char c2 = Character.toLowerCase(name2.charAt(offset2 + i));
+				if (c1 != c2) {
+					return c1 - c2;
+				}
+			}
+			return length1 - length2;
+		}
+	}
+}
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The directories of a repository and their last modification time, as a
+ * tree of <code>int</code> ids. A directory is the id of its parent and the
+ * {@link StringDictionary} id of its name, so that path segments shared by
+ * thousands of directories (such as <code>org/apache/maven</code>) aren't
+ * repeated in every path. Ids of removed directories aren't reused. Not
+ * thread-safe.
+ */
+final class DirectoryTree {
+
+	static final int ROOT = 0;
+	private static final int NONE = -1;
+	private static final int REMOVED = -2;
+
+	private final StringDictionary names;
+	private int size;
+	private int[] parents;
+	private int[] nameIds;
+	private int[] firstChildren;
+	private int[] nextSiblings;
+	private long[] stamps;
+
+	DirectoryTree(StringDictionary names) {
+		this.names = names;
+		clear();
+	}
+
+	void clear() {
+		parents = new int[64];
+		nameIds = new int[64];
+		firstChildren = new int[64];
+		nextSiblings = new int[64];
+		stamps = new long[64];
+		size = 1;
+		parents[ROOT] = NONE;
+		nameIds[ROOT] = NONE;
+		firstChildren[ROOT] = NONE;
+		nextSiblings[ROOT] = NONE;
+	}
+
+	/**
+	 * @param path relative to the repository, with <code>/</code> separators,
+	 *             empty for the repository itself
+	 * @return the id of the directory, or -1 if it's not known
+	 */
+	int find(String path) {
+		int id = ROOT;
+		int start = 0;
+		while (id >= 0 && start < path.length()) {
+			int end = path.indexOf('/', start);
+			if (end < 0) {
+				end = path.length();
+			}
+			int nameId = names.findId(path.substring(start, end));
+			id = nameId >= 0 ? findChild(id, nameId) : NONE;
+			start = end + 1;
+		}
+		return id;
+	}
+
+	/**
+	 * @return the id of the directory, added with its missing ancestors if it's
+	 *         not known
+	 */
+	int add(String path) {
+		int id = ROOT;
+		int start = 0;
+		while (start < path.length()) {
+			int end = path.indexOf('/', start);
+			if (end < 0) {
+				end = path.length();
+			}
+			id = addChild(id, path.substring(start, end));
+			start = end + 1;
+		}
+		return id;
+	}
+
+	int addChild(int parent, String name) {
+		int nameId = names.getId(name);
+		int id = findChild(parent, nameId);
+		if (id >= 0) {
+			return id;
+		}
+		if (size == parents.length) {
+			int capacity = size * 2;
+			parents = Arrays.copyOf(parents, capacity);
+			nameIds = Arrays.copyOf(nameIds, capacity);
+			firstChildren = Arrays.copyOf(firstChildren, capacity);
+			nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+			stamps = Arrays.copyOf(stamps, capacity);
+		}
+		id = size++;
+		parents[id] = parent;
+		nameIds[id] = nameId;
+		firstChildren[id] = NONE;
+		nextSiblings[id] = firstChildren[parent];
+		firstChildren[parent] = id;
+		return id;
+	}
+
+	/**
+	 * @return the id of the child directory, or -1 if it's not known
+	 */
+	int findChild(int parent, String name) {
+		int nameId = names.findId(name);
+		return nameId >= 0 ? findChild(parent, nameId) : NONE;
+	}
+
+	private int findChild(int parent, int nameId) {
+		for (int child = firstChildren[parent]; child >= 0; child = nextSiblings[child]) {
+			if (nameIds[child] == nameId) {
+				return child;
+			}
+		}
+		return NONE;
+	}
+
+	boolean contains(int id) {
+		return id >= 0 && id < size && parents[id] != REMOVED;
+	}
+
+	long getStamp(int id) {
+		return stamps[id];
+	}
+
+	void setStamp(int id, long stamp) {
+		stamps[id] = stamp;
+	}
+
+	int getParent(int id) {
+		return parents[id];
+	}
+
+	int getNameId(int id) {
+		return nameIds[id];
+	}
+
+	String getName(int id) {
+		return names.get(nameIds[id]);
+	}
+
+	/**
+	 * @return the path relative to the repository, with <code>/</code>
+	 *         separators
+	 */
+	String getPath(int id) {
+		if (id == ROOT) {
+			return "";
+		}
+		String parentPath = getPath(parents[id]);
+		return parentPath.isEmpty() ? getName(id) : parentPath + '/' + getName(id);
+	}
+
+	int getDepth(int id) {
+		int depth = 0;
+		for (int ancestor = id; ancestor != ROOT; ancestor = parents[ancestor]) {
+			depth++;
+		}
+		return depth;
+	}
+
+	List<Integer> getChildren(int id) {
+		List<Integer> children = new ArrayList<>();
+		for (int child = firstChildren[id]; child >= 0; child = nextSiblings[child]) {
+			children.add(child);
+		}
+		return children;
+	}
+
+	/**
+	 * @return the ids of all the known directories
+	 */
+	List<Integer> getIds() {
+		List<Integer> ids = new ArrayList<>(size);
+		for (int id = 0; id < size; id++) {
+			if (parents[id] != REMOVED) {
+				ids.add(id);
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Removes the directory and its descendants.
+	 *
+	 * @return the ids of the removed directories
+	 */
+	List<Integer> remove(int id) {
+		List<Integer> removed = new ArrayList<>();
+		if (id == ROOT) {
+			removed.addAll(getIds());
+			clear();
+			return removed;
+		}
+		int parent = parents[id];
+		if (firstChildren[parent] == id) {
+			firstChildren[parent] = nextSiblings[id];
+		} else {
+			int sibling = firstChildren[parent];
+			while (nextSiblings[sibling] != id) {
+				sibling = nextSiblings[sibling];
+			}
+			nextSiblings[sibling] = nextSiblings[id];
+		}
+		collect(id, removed);
+		for (int removedId : removed) {
+			parents[removedId] = REMOVED;
+		}
+		return removed;
+	}
+
+	private void collect(int id, List<Integer> ids) {
+		ids.add(id);
+		for (int child = firstChildren[id]; child >= 0; child = nextSiblings[child]) {
+			collect(child, ids);
+		}
+	}
+}
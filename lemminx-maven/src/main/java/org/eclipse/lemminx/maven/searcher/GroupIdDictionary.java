@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.PostingsEnum;
+import org.apache.lucene.index.Terms;
+import org.apache.lucene.index.TermsEnum;
+import org.apache.lucene.search.DocIdSetIterator;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.util.Bits;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.FixedBitSet;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+
+/**
+ * Sorted arrays of the groupIds of a remote index, with jar and
+ * <code>maven-plugin</code> artifacts, built after each update of the index and
+ * stored next to it, so that groupIds starting with a prefix are found by a
+ * binary search instead of an index query.
+ */
+public final class GroupIdDictionary {
+
+	private static final String FORMAT_HEADER = "# lemminx-maven groupId dictionary 1";
+
+	private final long timestamp;
+	private final String[] groupIds;
+	private final String[] pluginGroupIds;
+
+	/**
+	 * @param timestamp      timestamp of the index the groupIds were read from
+	 * @param groupIds       groupIds with jar artifacts
+	 * @param pluginGroupIds groupIds with <code>maven-plugin</code> artifacts
+	 */
+	public GroupIdDictionary(long timestamp, Collection<String> groupIds, Collection<String> pluginGroupIds) {
+		this.timestamp = timestamp;
+		this.groupIds = groupIds.stream().distinct().sorted().toArray(String[]::new);
+		this.pluginGroupIds = pluginGroupIds.stream().distinct().sorted().toArray(String[]::new);
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	/**
+	 * @param prefix the start of the groupIds, all of them for <code>null</code>
+	 * @return the groupIds starting with the prefix, sorted
+	 */
+	public List<String> getGroupIds(String prefix, boolean onlyPlugins) {
+		String[] values = onlyPlugins ? pluginGroupIds : groupIds;
+		if (prefix == null || prefix.isEmpty()) {
+			return Collections.unmodifiableList(Arrays.asList(values));
+		}
+		int from = lowerBound(values, prefix);
+		int to = from;
+		while (to < values.length && values[to].startsWith(prefix)) {
+			to++;
+		}
+		return Collections.unmodifiableList(Arrays.asList(values).subList(from, to));
+	}
+
+	/**
+	 * @return index of the first value not lower than the key
+	 */
+	private static int lowerBound(String[] values, String key) {
+		int low = 0;
+		int high = values.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (values[middle].compareTo(key) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Reads the groupIds from the terms of the untokenized groupId field, keeping
+	 * those having a document matched by the packaging queries.
+	 */
+	public static GroupIdDictionary build(IndexingContext context, Query jarQuery, Query pluginQuery) throws IOException {
+		long timestamp = context.getTimestamp() != null ? context.getTimestamp().getTime() : 0;
+		List<String> groupIds = new ArrayList<>();
+		List<String> pluginGroupIds = new ArrayList<>();
+		IndexSearcher searcher = context.acquireIndexSearcher();
+		try {
+			FixedBitSet jarDocuments = collect(searcher, jarQuery);
+			FixedBitSet pluginDocuments = collect(searcher, pluginQuery);
+			for (LeafReaderContext leaf : searcher.getIndexReader().leaves()) {
+				LeafReader reader = leaf.reader();
+				Terms terms = reader.terms(MinimalArtifactInfoIndexCreator.FLD_GROUP_ID_KW.getKey());
+				if (terms == null) {
+					continue;
+				}
+				Bits liveDocuments = reader.getLiveDocs();
+				TermsEnum termsEnum = terms.iterator();
+				PostingsEnum postings = null;
+				BytesRef term;
+				while ((term = termsEnum.next()) != null) {
+					postings = termsEnum.postings(postings, PostingsEnum.NONE);
+					boolean jar = false;
+					boolean plugin = false;
+					for (int document = postings.nextDoc(); document != DocIdSetIterator.NO_MORE_DOCS
+							&& !(jar && plugin); document = postings.nextDoc()) {
+						if (liveDocuments == null || liveDocuments.get(document)) {
+							jar |= jarDocuments.get(leaf.docBase + document);
+							plugin |= pluginDocuments.get(leaf.docBase + document);
+						}
+					}
+					if (jar) {
+						groupIds.add(term.utf8ToString());
+					}
+					if (plugin) {
+						pluginGroupIds.add(term.utf8ToString());
+					}
+				}
+			}
+		} finally {
+			context.releaseIndexSearcher(searcher);
+		}
+		return new GroupIdDictionary(timestamp, groupIds, pluginGroupIds);
+	}
+
+	private static FixedBitSet collect(IndexSearcher searcher, Query query) throws IOException {
+		FixedBitSet documents = new FixedBitSet(Math.max(1, searcher.getIndexReader().maxDoc()));
+		searcher.search(query, new SimpleCollector() {
+			private int docBase;
+
+			@Override
+			protected void doSetNextReader(LeafReaderContext context) throws IOException {
+				docBase = context.docBase;
+			}
+
+			@Override
+			public void collect(int document) throws IOException {
+				documents.set(docBase + document);
+			}
+
+			@Override
+			public boolean needsScores() {
+				return false;
+			}
+		});
+		return documents;
+	}
+
+	/**
+	 * @return the stored dictionary, or <code>null</code> if there's none or it
+	 *         can't be read
+	 */
+	public static GroupIdDictionary read(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			if (!FORMAT_HEADER.equals(reader.readLine())) {
+				return null;
+			}
+			long timestamp = Long.parseLong(reader.readLine());
+			List<String> groupIds = new ArrayList<>();
+			List<String> pluginGroupIds = new ArrayList<>();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				// groupId, then j for jar artifacts and p for plugins
+				int tab = line.indexOf('\t');
+				String groupId = line.substring(0, tab);
+				if (line.indexOf('j', tab) > 0) {
+					groupIds.add(groupId);
+				}
+				if (line.indexOf('p', tab) > 0) {
+					pluginGroupIds.add(groupId);
+				}
+			}
+			return new GroupIdDictionary(timestamp, groupIds, pluginGroupIds);
+		} catch (IOException | RuntimeException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	public void write(File file) throws IOException {
+		file.getParentFile().mkdirs();
+		File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+			writer.write(FORMAT_HEADER);
+			writer.newLine();
+			writer.write(Long.toString(timestamp));
+			writer.newLine();
+			// merge of the sorted arrays
+			int i = 0;
+			int j = 0;
+			while (i < groupIds.length || j < pluginGroupIds.length) {
+				int comparison = i >= groupIds.length ? 1
+						: j >= pluginGroupIds.length ? -1 : groupIds[i].compareTo(pluginGroupIds[j]);
+				writer.write(comparison <= 0 ? groupIds[i] : pluginGroupIds[j]);
+				writer.write('\t');
+				if (comparison <= 0) {
+					writer.write('j');
+					i++;
+				}
+				if (comparison >= 0) {
+					writer.write('p');
+					j++;
+				}
+				writer.newLine();
+			}
+		}
+		Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+}
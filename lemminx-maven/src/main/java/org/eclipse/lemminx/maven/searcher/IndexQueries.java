@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+import org.apache.maven.index.Field;
+import org.apache.maven.index.Indexer;
+import org.apache.maven.index.IndexerField;
+import org.apache.maven.index.MAVEN;
+import org.apache.maven.index.SearchType;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+
+/**
+ * The queries of the remote index searches.
+ */
+public final class IndexQueries {
+
+	/**
+	 * Shorter texts aren't matched with typos, they would match too much
+	 */
+	private static final int MIN_FUZZY_LENGTH = 4;
+
+	private final Indexer indexer;
+
+	public IndexQueries(Indexer indexer) {
+		this.indexer = indexer;
+	}
+
+	/**
+	 * @param groupId can be <code>null</code> to search in all groupIds
+	 * @return a query matching the versions of the artifact
+	 */
+	public Query newVersionsQuery(String groupId, String artifactId, String packaging) {
+		BooleanQuery.Builder builder = new BooleanQuery.Builder();
+		if (groupId != null) {
+			builder.add(indexer.constructQuery(MAVEN.GROUP_ID, groupId, SearchType.EXACT), Occur.MUST);
+		}
+		builder.add(indexer.constructQuery(MAVEN.ARTIFACT_ID, artifactId, SearchType.EXACT), Occur.MUST);
+		builder.add(indexer.constructQuery(MAVEN.PACKAGING, packaging, SearchType.EXACT), Occur.MUST);
+		return builder.build();
+	}
+
+	/**
+	 * @param groupId    can be <code>null</code> to search in all groupIds
+	 * @param artifactId can be <code>null</code> to match any artifactId
+	 * @return a query matching the artifactIds that start with, or are close to,
+	 *         the given one
+	 */
+	public Query newArtifactIdsQuery(String groupId, String artifactId, String packaging) {
+		BooleanQuery.Builder builder = new BooleanQuery.Builder();
+		if (groupId != null) {
+			builder.add(indexer.constructQuery(MAVEN.GROUP_ID, groupId, SearchType.EXACT), Occur.MUST);
+		}
+		if (artifactId != null) {
+			builder.add(newTextQuery(MAVEN.ARTIFACT_ID, MinimalArtifactInfoIndexCreator.FLD_ARTIFACT_ID_KW, artifactId),
+					Occur.MUST);
+		}
+		builder.add(indexer.constructQuery(MAVEN.PACKAGING, packaging, SearchType.EXACT), Occur.MUST);
+		return builder.build();
+	}
+
+	/**
+	 * @param groupId can be <code>null</code> to match any groupId
+	 * @return a query matching the groupIds that start with, or are close to, the
+	 *         given one
+	 */
+	public Query newGroupIdsQuery(String groupId, String packaging) {
+		BooleanQuery.Builder builder = new BooleanQuery.Builder();
+		if (groupId != null) {
+			builder.add(newTextQuery(MAVEN.GROUP_ID, MinimalArtifactInfoIndexCreator.FLD_GROUP_ID_KW, groupId),
+					Occur.MUST);
+		}
+		builder.add(indexer.constructQuery(MAVEN.PACKAGING, packaging, SearchType.EXACT), Occur.MUST);
+		return builder.build();
+	}
+
+	/**
+	 * @return a query matching the text exactly, as a prefix, with typos and on
+	 *         any segment through the tokenized field, scored in that order
+	 */
+	private Query newTextQuery(Field field, IndexerField keywordField, String text) {
+		BooleanQuery.Builder builder = new BooleanQuery.Builder();
+		Term term = new Term(keywordField.getKey(), text);
+		builder.add(new BoostQuery(new TermQuery(term), 8f), Occur.SHOULD);
+		builder.add(new BoostQuery(new PrefixQuery(term), 4f), Occur.SHOULD);
+		builder.add(new BoostQuery(indexer.constructQuery(field, text, SearchType.SCORED), 2f), Occur.SHOULD);
+		if (text.length() >= MIN_FUZZY_LENGTH) {
+			builder.add(new FuzzyQuery(term, text.length() < 2 * MIN_FUZZY_LENGTH ? 1 : 2, 1), Occur.SHOULD);
+		}
+		return builder.build();
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+
+/**
+ * The versions of an artifact installed in a local repository, as references
+ * to a {@link VersionTable} sorted on the parsed versions, so that lookups
+ * compare the sort keys of the table instead of parsing or sorting anything.
+ */
+public final class InstalledVersions {
+
+	private final VersionTable table;
+	/**
+	 * Sorted from oldest to newest
+	 */
+	private final int[] versionIds;
+	private final int lastVersionId;
+
+	public InstalledVersions(Collection<String> versions, VersionTable table) {
+		this.table = table;
+		this.versionIds = versions.stream().mapToInt(table::getId).boxed()
+				.sorted((id1, id2) -> table.get(id1).compareTo(table.get(id2))).mapToInt(Integer::intValue).toArray();
+		int last = -1;
+		for (int i = versionIds.length - 1; i >= 0 && last < 0; i--) {
+			if (!isSnapshot(table.get(versionIds[i]))) {
+				last = versionIds[i];
+			}
+		}
+		this.lastVersionId = last >= 0 || versionIds.length == 0 ? last : versionIds[versionIds.length - 1];
+	}
+
+	private static boolean isSnapshot(ArtifactVersion version) {
+		return version.toString().endsWith("-SNAPSHOT");
+	}
+
+	/**
+	 * @return the versions, from oldest to newest
+	 */
+	public List<ArtifactVersion> getVersions() {
+		return new AbstractList<ArtifactVersion>() {
+			@Override
+			public ArtifactVersion get(int index) {
+				return table.get(versionIds[index]);
+			}
+
+			@Override
+			public int size() {
+				return versionIds.length;
+			}
+		};
+	}
+
+	/**
+	 * @return the ids of the versions in the {@link VersionTable}, from oldest to
+	 *         newest, not to be modified
+	 */
+	int[] getVersionIds() {
+		return versionIds;
+	}
+
+	/**
+	 * @return the highest version, releases being preferred over snapshots
+	 */
+	public ArtifactVersion getLastVersion() {
+		return lastVersionId >= 0 ? table.get(lastVersionId) : null;
+	}
+
+	public boolean contains(String version) {
+		int id = table.findId(version);
+		if (id < 0) {
+			return false;
+		}
+		int key = table.getSortKey(id);
+		int low = 0;
+		int high = versionIds.length - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int sortKey = table.getSortKey(versionIds[middle]);
+			if (sortKey < key) {
+				low = middle + 1;
+			} else if (sortKey > key) {
+				high = middle - 1;
+			} else {
+				// versions written differently, like 1 and 1.0, have the same key: look for the exact one
+				for (int i = middle; i >= 0 && table.getSortKey(versionIds[i]) == key; i--) {
+					if (versionIds[i] == id) {
+						return true;
+					}
+				}
+				for (int i = middle + 1; i < versionIds.length && table.getSortKey(versionIds[i]) == key; i++) {
+					if (versionIds[i] == id) {
+						return true;
+					}
+				}
+				return false;
+			}
+		}
+		return false;
+	}
+}
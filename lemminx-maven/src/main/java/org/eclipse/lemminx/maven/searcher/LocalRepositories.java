@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The local repositories used by the edited projects, each one with its own
+ * searcher, index and watcher, created when a project first uses it.
+ */
+public class LocalRepositories {
+
+	private final LocalRepositoryLocator locator;
+	private final Map<File, LocalRepositorySearcher> searchers = new ConcurrentHashMap<>();
+
+	public LocalRepositories(LocalRepositoryLocator locator) {
+		this.locator = locator;
+	}
+
+	/**
+	 * @param documentURI URI of the POM, can be <code>null</code> for the default
+	 *                    local repository
+	 */
+	public LocalRepositorySearcher getSearcher(String documentURI) {
+		return searchers.computeIfAbsent(locator.getLocalRepository(documentURI), LocalRepositorySearcher::new);
+	}
+
+	public void stop() {
+		searchers.values().forEach(LocalRepositorySearcher::stop);
+		searchers.clear();
+	}
+}
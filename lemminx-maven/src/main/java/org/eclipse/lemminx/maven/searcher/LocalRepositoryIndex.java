@@ -0,0 +1,632 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.index.artifact.Gav;
+
+/**
+ * Index of the artifacts installed in a local repository, persisted on disk.
+ * The last modification time of every scanned directory is recorded, so that
+ * after a restart or a change notification, only the directories that changed
+ * are listed again. The whole repository is walked only when there's no
+ * stored index yet.
+ */
+public class LocalRepositoryIndex {
+
+	private static final String FORMAT_HEADER = "# lemminx-maven local repository index 2";
+	private static final int MAX_DEPTH = 10;
+	private static final String MAVEN_PLUGIN_PACKAGING = "maven-plugin";
+	/**
+	 * Depth up to which directories are scanned in parallel on a full scan
+	 */
+	private static final int PARALLEL_DEPTH = 2;
+
+	private final File repository;
+	private final File indexFile;
+
+	/**
+	 * Distinct versions of all the artifacts, parsed once
+	 */
+	private final VersionTable versionTable = VersionTable.getShared();
+	/**
+	 * Distinct directory names, groupIds and packagings, shared by the artifacts
+	 * returned
+	 */
+	private final StringDictionary names = new StringDictionary();
+	/**
+	 * The scanned directories and their last modification time
+	 */
+	private final DirectoryTree directories = new DirectoryTree(names);
+	/**
+	 * Installed versions, by id of the artifact directory
+	 */
+	private final Map<Integer, InstalledVersions> versions = new HashMap<>();
+	/**
+	 * Packaging of the last version of the artifacts, by id of the artifact
+	 * directory, read in background
+	 */
+	private final Map<Integer, Packaging> packagings = new HashMap<>();
+	private final AtomicBoolean resolvingPackagings = new AtomicBoolean();
+	/**
+	 * Reads the POMs of the packagings, there's one per installed artifact
+	 */
+	private final ExecutorService packagingReader = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Local packaging reader");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+	/**
+	 * Whether the POMs of the packagings loaded from disk were checked for
+	 * modifications
+	 */
+	private boolean packagingsValidated;
+	private boolean initialized;
+	private boolean modified;
+	/**
+	 * Built from the current versions on first use after a change
+	 */
+	private ArtifactPrefixIndex prefixIndex;
+	/**
+	 * Collects the directories scanned for the first time during a refresh
+	 */
+	private List<Integer> scannedDirectories;
+
+	private static final class Packaging {
+		final String packaging;
+		final long pomLastModified;
+
+		Packaging(String packaging, long pomLastModified) {
+			this.packaging = packaging;
+			this.pomLastModified = pomLastModified;
+		}
+	}
+
+	/**
+	 * @param repository the local repository
+	 * @param indexFile  where the index is stored, can be <code>null</code> to
+	 *                   not persist it
+	 */
+	public LocalRepositoryIndex(File repository, File indexFile) {
+		this.repository = repository;
+		this.indexFile = indexFile;
+	}
+
+	/**
+	 * Brings the index up-to-date with the repository: loads the stored index
+	 * the first time, then only lists the directories modified since they were
+	 * last scanned. Artifact directories are checked too, so that versions
+	 * installed meanwhile are found: that's a file status per artifact, listing
+	 * only the directories that changed.
+	 */
+	public synchronized void refresh() throws IOException {
+		if (!initialized) {
+			initialized = true;
+			if (!load()) {
+				directories.clear();
+				versions.clear();
+				packagings.clear();
+				scanDirectory(repository, DirectoryTree.ROOT);
+				changed();
+				save();
+				return;
+			}
+		}
+		// parents first, so that the descendants of removed directories are skipped
+		for (int id : directories.getIds()) {
+			validate(id);
+		}
+		save();
+	}
+
+	/**
+	 * Lists the directory again if it was modified since it was scanned, or
+	 * drops it if it was removed.
+	 */
+	private void validate(int id) {
+		if (!directories.contains(id)) {
+			// removed with its parent
+			return;
+		}
+		File directory = toFile(id);
+		if (!directory.isDirectory()) {
+			removeSubtree(id);
+		} else if (directory.lastModified() != directories.getStamp(id)) {
+			rescanDirectory(directory, id);
+		}
+	}
+
+	/**
+	 * Lists the given directories again, as they're known to have changed. Those
+	 * that were removed are dropped with their descendants.
+	 * 
+	 * @return the directories that were scanned for the first time
+	 */
+	public synchronized Collection<File> refresh(Collection<File> changedDirectories) throws IOException {
+		scannedDirectories = new ArrayList<>();
+		try {
+			for (File directory : changedDirectories) {
+				String path = toPath(directory);
+				int id = path != null ? directories.find(path) : -1;
+				if (!directories.contains(id)) {
+					// unknown yet, scanned with its parent
+					continue;
+				}
+				if (!directory.isDirectory()) {
+					removeSubtree(id);
+				} else {
+					rescanDirectory(directory, id);
+				}
+			}
+			save();
+			return scannedDirectories.stream().map(this::toFile).collect(Collectors.toList());
+		} finally {
+			scannedDirectories = null;
+		}
+	}
+
+	/**
+	 * @return all the directories of the repository, except versions
+	 */
+	public synchronized Collection<File> getDirectories() {
+		return directories.getIds().stream().map(this::toFile).collect(Collectors.toList());
+	}
+
+	/**
+	 * @return the highest version of each installed artifact, releases being
+	 *         preferred over snapshots
+	 */
+	public synchronized Collection<Gav> getArtifactsLastVersion() {
+		return getArtifactsLastVersion(null);
+	}
+
+	/**
+	 * @param ids collects the directory id of each artifact, can be
+	 *            <code>null</code>
+	 */
+	private Collection<Gav> getArtifactsLastVersion(Map<Gav, Integer> ids) {
+		List<Gav> res = new ArrayList<>(versions.size());
+		Map<Integer, String> groupIds = new HashMap<>();
+		for (Entry<Integer, InstalledVersions> entry : versions.entrySet()) {
+			int id = entry.getKey();
+			String groupId = groupIds.computeIfAbsent(directories.getParent(id),
+					parent -> names.intern(directories.getPath(parent).replace('/', '.')));
+			Gav gav = new Gav(groupId, directories.getName(id), entry.getValue().getLastVersion().toString());
+			res.add(gav);
+			if (ids != null) {
+				ids.put(gav, id);
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * @return the prefix index of the artifacts. Plugins are the artifacts with
+	 *         a <code>maven-plugin</code> packaging; until the packaging of an
+	 *         artifact is read, it's a plugin if its artifactId contains
+	 *         <code>-plugin</code>.
+	 */
+	public synchronized ArtifactPrefixIndex getPrefixIndex() {
+		if (prefixIndex == null) {
+			Map<Gav, Integer> ids = new IdentityHashMap<>();
+			prefixIndex = new ArtifactPrefixIndex(getArtifactsLastVersion(ids), gav -> isPlugin(gav, ids.get(gav)));
+			resolvePackagings();
+		}
+		return prefixIndex;
+	}
+
+	private boolean isPlugin(Gav gav, Integer id) {
+		Packaging packaging = id != null ? packagings.get(id) : null;
+		if (packaging == null || packaging.packaging == null) {
+			return gav.getArtifactId().contains("-plugin");
+		}
+		return MAVEN_PLUGIN_PACKAGING.equals(packaging.packaging);
+	}
+
+	/**
+	 * Reads in background the packaging of the artifacts that don't have one,
+	 * and the first time, of those whose POM was modified since it was read.
+	 * The prefix index is rebuilt on next use if any packaging changed.
+	 */
+	private void resolvePackagings() {
+		if (!resolvingPackagings.compareAndSet(false, true)) {
+			return;
+		}
+		Map<Integer, File> pomFiles = new HashMap<>();
+		Map<Integer, Long> knownStamps = new HashMap<>();
+		for (Entry<Integer, InstalledVersions> entry : versions.entrySet()) {
+			Packaging packaging = packagings.get(entry.getKey());
+			if (packaging == null || !packagingsValidated) {
+				pomFiles.put(entry.getKey(), getPomFile(entry.getKey(), entry.getValue().getLastVersion().toString()));
+				if (packaging != null) {
+					knownStamps.put(entry.getKey(), packaging.pomLastModified);
+				}
+			}
+		}
+		packagingsValidated = true;
+		if (pomFiles.isEmpty()) {
+			resolvingPackagings.set(false);
+			return;
+		}
+		try {
+			packagingReader.execute(() -> readPackagings(pomFiles, knownStamps));
+		} catch (RejectedExecutionException e) {
+			// stopped
+			resolvingPackagings.set(false);
+		}
+	}
+
+	private void readPackagings(Map<Integer, File> pomFiles, Map<Integer, Long> knownStamps) {
+		try {
+			Map<Integer, Packaging> read = new HashMap<>();
+			for (Entry<Integer, File> pomFile : pomFiles.entrySet()) {
+				if (Thread.currentThread().isInterrupted()) {
+					// stopped
+					return;
+				}
+				long lastModified = pomFile.getValue().lastModified();
+				Long knownStamp = knownStamps.get(pomFile.getKey());
+				if (knownStamp == null || knownStamp.longValue() != lastModified) {
+					read.put(pomFile.getKey(),
+							new Packaging(PomPackagingReader.readPackaging(pomFile.getValue()), lastModified));
+				}
+			}
+			synchronized (this) {
+				for (Entry<Integer, Packaging> packaging : read.entrySet()) {
+					// ignore artifacts removed or updated meanwhile
+					int id = packaging.getKey();
+					InstalledVersions installed = versions.get(id);
+					if (installed != null && pomFiles.get(id)
+							.equals(getPomFile(id, installed.getLastVersion().toString()))) {
+						packagings.put(id, packaging.getValue());
+					}
+				}
+				if (!read.isEmpty()) {
+					changed();
+					save();
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		} finally {
+			resolvingPackagings.set(false);
+		}
+	}
+
+	/**
+	 * Stops reading packagings in background.
+	 */
+	public void stop() {
+		packagingReader.shutdownNow();
+	}
+
+	private File getPomFile(int id, String version) {
+		return new File(toFile(id), version + File.separatorChar + directories.getName(id) + '-' + version + ".pom");
+	}
+
+	/**
+	 * @param groupId    can be <code>null</code> to look for the artifactId in all
+	 *                   groups
+	 * @param artifactId
+	 * @return the installed versions of the artifact, from oldest to newest
+	 */
+	public synchronized List<ArtifactVersion> getVersions(String groupId, String artifactId) {
+		if (groupId != null) {
+			int id = findArtifact(groupId, artifactId);
+			validate(id);
+			InstalledVersions installed = versions.get(id);
+			return installed != null ? installed.getVersions() : Collections.emptyList();
+		}
+		int nameId = names.findId(artifactId);
+		versions.keySet().stream().filter(id -> directories.getNameId(id) == nameId).collect(Collectors.toList())
+				.forEach(this::validate);
+		return versions.entrySet().stream().filter(entry -> directories.getNameId(entry.getKey()) == nameId)
+				.flatMapToInt(entry -> Arrays.stream(entry.getValue().getVersionIds())).boxed()
+				.sorted(Comparator.comparingInt(versionTable::getSortKey)).map(versionTable::get)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Answered from memory, as of the last refresh of the index.
+	 * 
+	 * @return whether the version of the artifact is installed
+	 */
+	public synchronized boolean isInstalled(String groupId, String artifactId, String version) {
+		InstalledVersions installed = versions.get(findArtifact(groupId, artifactId));
+		return installed != null && version != null && installed.contains(version);
+	}
+
+	/**
+	 * @return the id of the artifact directory, or -1 if it's not known
+	 */
+	private int findArtifact(String groupId, String artifactId) {
+		return groupId != null && artifactId != null ? directories.find(groupId.replace('.', '/') + '/' + artifactId)
+				: -1;
+	}
+
+	/**
+	 * Scans the directory and all its descendants.
+	 */
+	private void scanDirectory(File directory, int id) {
+		ScanTask task = new ScanTask(directory, directories.getPath(id));
+		ForkJoinPool.commonPool().invoke(task);
+		// the paths of the task are only kept until they're added to the tree
+		for (Entry<String, Long> stamp : task.stamps.entrySet()) {
+			int scannedId = directories.add(stamp.getKey());
+			directories.setStamp(scannedId, stamp.getValue());
+			if (scannedDirectories != null) {
+				scannedDirectories.add(scannedId);
+			}
+		}
+		for (Entry<String, List<String>> artifact : task.versions.entrySet()) {
+			versions.put(directories.add(artifact.getKey()), new InstalledVersions(artifact.getValue(), versionTable));
+		}
+	}
+
+	/**
+	 * Scans a directory and its descendants into its own maps. A task is forked
+	 * for each directory of the first levels of the repository (such as
+	 * <code>org/apache</code>), so that groupIds are scanned in parallel without
+	 * sharing any state, and results are merged once per forked task.
+	 */
+	private static final class ScanTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final File directory;
+		private final String path;
+		final Map<String, Long> stamps = new HashMap<>();
+		final Map<String, List<String>> versions = new HashMap<>();
+
+		ScanTask(File directory, String path) {
+			this.directory = directory;
+			this.path = path;
+		}
+
+		@Override
+		protected void compute() {
+			List<ScanTask> subtasks = new ArrayList<>();
+			scan(directory, path, subtasks);
+			for (ScanTask subtask : subtasks) {
+				subtask.join();
+				stamps.putAll(subtask.stamps);
+				versions.putAll(subtask.versions);
+			}
+		}
+
+		private void scan(File directory, String path, List<ScanTask> subtasks) {
+			File[] children = directory.listFiles(File::isDirectory);
+			stamps.put(path, directory.lastModified());
+			List<String> directoryVersions = new ArrayList<>();
+			if (children != null) {
+				for (File child : children) {
+					String name = child.getName();
+					if (name.charAt(0) == '.') {
+						continue;
+					}
+					if (Character.isDigit(name.charAt(0))) {
+						directoryVersions.add(name);
+					} else if (depth(path) < MAX_DEPTH) {
+						String childPath = childPath(path, name);
+						if (depth(path) < PARALLEL_DEPTH) {
+							ScanTask subtask = new ScanTask(child, childPath);
+							subtask.fork();
+							subtasks.add(subtask);
+						} else {
+							scan(child, childPath, subtasks);
+						}
+					}
+				}
+			}
+			if (isArtifact(path, directoryVersions)) {
+				versions.put(path, directoryVersions);
+			}
+		}
+	}
+
+	/**
+	 * Lists a directory that was already scanned: its versions are updated, the
+	 * child directories that weren't known yet are scanned and those that were
+	 * removed are dropped.
+	 */
+	private void rescanDirectory(File directory, int id) {
+		File[] children = directory.listFiles(File::isDirectory);
+		directories.setStamp(id, directory.lastModified());
+		changed();
+		List<String> directoryVersions = new ArrayList<>();
+		Set<Integer> childIds = new HashSet<>();
+		int depth = directories.getDepth(id);
+		if (children != null) {
+			for (File child : children) {
+				String name = child.getName();
+				if (name.charAt(0) == '.') {
+					continue;
+				}
+				if (Character.isDigit(name.charAt(0))) {
+					directoryVersions.add(name);
+				} else if (depth < MAX_DEPTH) {
+					int childId = directories.findChild(id, name);
+					if (childId < 0) {
+						childId = directories.addChild(id, name);
+						scanDirectory(child, childId);
+					}
+					childIds.add(childId);
+				}
+			}
+		}
+		for (int childId : directories.getChildren(id)) {
+			if (!childIds.contains(childId)) {
+				removeSubtree(childId);
+			}
+		}
+		setVersions(id, directoryVersions);
+	}
+
+	private void changed() {
+		modified = true;
+		prefixIndex = null;
+	}
+
+	private void setVersions(int id, List<String> directoryVersions) {
+		if (!directoryVersions.isEmpty() && directories.getDepth(id) > 1) {
+			InstalledVersions installed = new InstalledVersions(directoryVersions, versionTable);
+			InstalledVersions former = versions.put(id, installed);
+			if (former != null && former.getLastVersion().toString().equals(installed.getLastVersion().toString())) {
+				return;
+			}
+		} else {
+			versions.remove(id);
+		}
+		// read again for the new last version
+		packagings.remove(id);
+	}
+
+	private static boolean isArtifact(String path, List<String> directoryVersions) {
+		// an artifact has at least a groupId segment before its artifactId
+		return !directoryVersions.isEmpty() && path.indexOf('/') >= 0;
+	}
+
+	private void removeSubtree(int id) {
+		for (int removed : directories.remove(id)) {
+			versions.remove(removed);
+			packagings.remove(removed);
+		}
+		changed();
+	}
+
+	private File toFile(int id) {
+		String path = directories.getPath(id);
+		return path.isEmpty() ? repository : new File(repository, path.replace('/', File.separatorChar));
+	}
+
+	/**
+	 * @return the path relative to the repository, or <code>null</code> if the
+	 *         file isn't in the repository
+	 */
+	private String toPath(File file) {
+		Path relative = repository.toPath().relativize(file.toPath());
+		if (relative.startsWith("..")) {
+			return null;
+		}
+		return relative.toString().replace(File.separatorChar, '/');
+	}
+
+	private static String childPath(String path, String name) {
+		return path.isEmpty() ? name : path + '/' + name;
+	}
+
+	private static int depth(String path) {
+		if (path.isEmpty()) {
+			return 0;
+		}
+		int depth = 1;
+		for (int i = 0; i < path.length(); i++) {
+			if (path.charAt(i) == '/') {
+				depth++;
+			}
+		}
+		return depth;
+	}
+
+	/**
+	 * @return whether a stored index could be loaded
+	 */
+	private boolean load() {
+		if (indexFile == null || !indexFile.isFile()) {
+			return false;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+			if (!FORMAT_HEADER.equals(reader.readLine())) {
+				return false;
+			}
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] segments = line.split("\t");
+				int id = directories.add(segments[0]);
+				directories.setStamp(id, Long.parseLong(segments[1]));
+				if (segments.length > 4) {
+					if (!segments[2].isEmpty()) {
+						packagings.put(id, new Packaging(names.intern(segments[2]), Long.parseLong(segments[3])));
+					}
+					versions.put(id, new InstalledVersions(Arrays.asList(segments).subList(4, segments.length),
+							versionTable));
+				}
+			}
+			return true;
+		} catch (IOException | RuntimeException e) {
+			e.printStackTrace();
+			directories.clear();
+			versions.clear();
+			packagings.clear();
+			return false;
+		}
+	}
+
+	private void save() throws IOException {
+		if (indexFile == null || !modified) {
+			return;
+		}
+		indexFile.getParentFile().mkdirs();
+		File tempFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+		try (BufferedWriter writer = Files.newBufferedWriter(tempFile.toPath(), StandardCharsets.UTF_8)) {
+			writer.write(FORMAT_HEADER);
+			writer.newLine();
+			// parents come first, they have lower ids
+			for (int id : directories.getIds()) {
+				writer.write(directories.getPath(id));
+				writer.write('\t');
+				writer.write(Long.toString(directories.getStamp(id)));
+				InstalledVersions directoryVersions = versions.get(id);
+				if (directoryVersions != null) {
+					// packaging and POM stamp, empty if not read yet
+					Packaging packaging = packagings.get(id);
+					writer.write('\t');
+					writer.write(packaging != null && packaging.packaging != null ? packaging.packaging : "");
+					writer.write('\t');
+					writer.write(packaging != null ? Long.toString(packaging.pomLastModified) : "0");
+					for (ArtifactVersion version : directoryVersions.getVersions()) {
+						writer.write('\t');
+						writer.write(version.toString());
+					}
+				}
+				writer.newLine();
+			}
+		}
+		Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		modified = false;
+	}
+}
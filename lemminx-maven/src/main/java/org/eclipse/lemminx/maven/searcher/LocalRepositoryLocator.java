@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.repository.RepositorySystem;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.settings.io.xpp3.SettingsXpp3Reader;
+import org.codehaus.plexus.util.ReaderFactory;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Finds the local repository used by Maven, the way the command line does:
+ * <ol>
+ * <li>the <code>maven.repo.local</code> property, either set in
+ * <code>.mvn/maven.config</code> of the project or on this process,</li>
+ * <li>the <code>localRepository</code> of the user settings, or of the settings
+ * given by <code>-s</code> in <code>.mvn/maven.config</code>,</li>
+ * <li>the <code>localRepository</code> of the global settings,</li>
+ * <li><code>~/.m2/repository</code>.</li>
+ * </ol>
+ */
+public class LocalRepositoryLocator {
+
+	private static final String LOCAL_REPOSITORY_PROPERTY = "maven.repo.local";
+	private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^}]+)\\}");
+	/**
+	 * Interval at which the project root of a directory and the
+	 * <code>.mvn/maven.config</code> of a project root are looked up again
+	 */
+	private static final long DEFAULT_CHECK_INTERVAL_MS = 5000;
+
+	private final File defaultLocalRepository;
+	private final File globalSettings;
+	private final long checkInterval;
+	/**
+	 * Project root of the directory of a POM
+	 */
+	private final Map<File, ProjectRoot> projectRoots = new ConcurrentHashMap<>();
+	/**
+	 * Local repository configured by the <code>.mvn/maven.config</code> of a
+	 * project root
+	 */
+	private final Map<File, ProjectConfiguration> projectConfigurations = new ConcurrentHashMap<>();
+
+	private static final class ProjectRoot {
+		/**
+		 * <code>null</code> if the directory isn't in a project with a
+		 * <code>.mvn</code> directory
+		 */
+		final File root;
+		final long checkTime;
+
+		ProjectRoot(File root, long checkTime) {
+			this.root = root;
+			this.checkTime = checkTime;
+		}
+	}
+
+	private static final class ProjectConfiguration {
+		final long lastModified;
+		final File localRepository;
+		final long checkTime;
+
+		ProjectConfiguration(long lastModified, File localRepository, long checkTime) {
+			this.lastModified = lastModified;
+			this.localRepository = localRepository;
+			this.checkTime = checkTime;
+		}
+	}
+
+	public LocalRepositoryLocator() {
+		this(new File(RepositorySystem.userMavenConfigurationHome, "settings.xml"), getGlobalSettings());
+	}
+
+	/**
+	 * @param userSettings   the user settings, can be missing
+	 * @param globalSettings the global settings, can be <code>null</code> or
+	 *                       missing
+	 */
+	public LocalRepositoryLocator(File userSettings, File globalSettings) {
+		this(userSettings, globalSettings, DEFAULT_CHECK_INTERVAL_MS);
+	}
+
+	/**
+	 * @param checkInterval milliseconds during which the project root and
+	 *                      configuration found for a POM are reused without
+	 *                      checking the file system again
+	 */
+	public LocalRepositoryLocator(File userSettings, File globalSettings, long checkInterval) {
+		this.globalSettings = globalSettings;
+		this.checkInterval = checkInterval;
+		File localRepository = toFile(System.getProperty(LOCAL_REPOSITORY_PROPERTY), null);
+		if (localRepository == null) {
+			localRepository = readLocalRepository(userSettings);
+		}
+		if (localRepository == null && globalSettings != null) {
+			localRepository = readLocalRepository(globalSettings);
+		}
+		this.defaultLocalRepository = localRepository != null ? localRepository
+				: RepositorySystem.defaultUserLocalRepository.getAbsoluteFile();
+	}
+
+	private static File getGlobalSettings() {
+		String mavenHome = System.getProperty("maven.home");
+		if (mavenHome == null) {
+			mavenHome = System.getenv("MAVEN_HOME");
+		}
+		if (mavenHome == null) {
+			mavenHome = System.getenv("M2_HOME");
+		}
+		return mavenHome != null ? new File(mavenHome, "conf" + File.separatorChar + "settings.xml") : null;
+	}
+
+	/**
+	 * @return the local repository of projects that don't override it
+	 */
+	public File getDefaultLocalRepository() {
+		return defaultLocalRepository;
+	}
+
+	/**
+	 * @param documentURI URI of a POM, can be <code>null</code>
+	 */
+	public File getLocalRepository(String documentURI) {
+		if (documentURI == null || !documentURI.startsWith("file:")) {
+			return defaultLocalRepository;
+		}
+		try {
+			return getLocalRepository(new File(URI.create(documentURI)));
+		} catch (IllegalArgumentException e) {
+			return defaultLocalRepository;
+		}
+	}
+
+	/**
+	 * @return the local repository configured by the <code>.mvn</code> directory
+	 *         of the project root, if any, or the default one
+	 */
+	public File getLocalRepository(File pomFile) {
+		long now = System.currentTimeMillis();
+		File directory = pomFile.getAbsoluteFile().getParentFile();
+		ProjectRoot projectRoot = projectRoots.get(directory);
+		if (projectRoot == null || now - projectRoot.checkTime >= checkInterval) {
+			projectRoot = new ProjectRoot(findProjectRoot(directory), now);
+			projectRoots.put(directory, projectRoot);
+		}
+		File root = projectRoot.root;
+		if (root == null) {
+			return defaultLocalRepository;
+		}
+		ProjectConfiguration configuration = projectConfigurations.get(root);
+		if (configuration == null || now - configuration.checkTime >= checkInterval) {
+			File configFile = new File(root, ".mvn" + File.separatorChar + "maven.config");
+			long lastModified = configFile.lastModified();
+			File localRepository;
+			if (configuration != null && configuration.lastModified == lastModified) {
+				localRepository = configuration.localRepository;
+			} else {
+				localRepository = lastModified != 0 ? readMavenConfig(configFile, root) : null;
+			}
+			configuration = new ProjectConfiguration(lastModified, localRepository, now);
+			projectConfigurations.put(root, configuration);
+		}
+		return configuration.localRepository != null ? configuration.localRepository : defaultLocalRepository;
+	}
+
+	/**
+	 * @return the closest ancestor with a <code>.mvn</code> directory, as Maven
+	 *         looks up the multi-module project directory
+	 */
+	private static File findProjectRoot(File directory) {
+		for (File current = directory; current != null; current = current.getParentFile()) {
+			if (new File(current, ".mvn").isDirectory()) {
+				return current;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the local repository set by the arguments of
+	 *         <code>.mvn/maven.config</code>, or <code>null</code>
+	 */
+	private File readMavenConfig(File configFile, File root) {
+		String[] arguments;
+		try {
+			arguments = new String(Files.readAllBytes(configFile.toPath()), StandardCharsets.UTF_8).trim().split("\\s+");
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+		String localRepository = null;
+		File settings = null;
+		for (int i = 0; i < arguments.length; i++) {
+			String argument = arguments[i];
+			if ("-D".equals(argument) && i + 1 < arguments.length) {
+				argument = "-D" + arguments[++i];
+			}
+			if (argument.startsWith("-D" + LOCAL_REPOSITORY_PROPERTY + '=')) {
+				localRepository = argument.substring(LOCAL_REPOSITORY_PROPERTY.length() + 3);
+			} else if (("-s".equals(argument) || "--settings".equals(argument)) && i + 1 < arguments.length) {
+				settings = toFile(arguments[++i], root);
+			}
+		}
+		if (localRepository != null) {
+			return toFile(localRepository, root);
+		}
+		if (settings != null) {
+			File settingsLocalRepository = readLocalRepository(settings);
+			if (settingsLocalRepository == null && globalSettings != null) {
+				settingsLocalRepository = readLocalRepository(globalSettings);
+			}
+			return settingsLocalRepository;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the <code>localRepository</code> of the settings, or
+	 *         <code>null</code> if it isn't set or the settings can't be read
+	 */
+	private static File readLocalRepository(File settingsFile) {
+		if (!settingsFile.isFile()) {
+			return null;
+		}
+		try (Reader reader = ReaderFactory.newXmlReader(settingsFile)) {
+			Settings settings = new SettingsXpp3Reader().read(reader, false);
+			return toFile(settings.getLocalRepository(), null);
+		} catch (IOException | XmlPullParserException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * @param path      path that can reference <code>${env.NAME}</code> and
+	 *                  system properties, such as <code>${user.home}</code>
+	 * @param directory directory a relative path is resolved against, or
+	 *                  <code>null</code> for the working directory
+	 */
+	private static File toFile(String path, File directory) {
+		if (path == null || path.trim().isEmpty()) {
+			return null;
+		}
+		Matcher matcher = EXPRESSION.matcher(path.trim());
+		StringBuffer interpolated = new StringBuffer();
+		while (matcher.find()) {
+			String expression = matcher.group(1);
+			String value = expression.startsWith("env.") ? System.getenv(expression.substring(4))
+					: System.getProperty(expression);
+			matcher.appendReplacement(interpolated, Matcher.quoteReplacement(value != null ? value : matcher.group()));
+		}
+		matcher.appendTail(interpolated);
+		File file = new File(interpolated.toString());
+		if (!file.isAbsolute() && directory != null) {
+			file = new File(directory, file.getPath());
+		}
+		return file.getAbsoluteFile();
+	}
+}
@@ -1,130 +1,198 @@
-/*******************************************************************************
- * Copyright (c) 2019-2020 Red Hat Inc. and others.
- * This program and the accompanying materials are made
- * available under the terms of the Eclipse Public License 2.0
- * which is available at https://www.eclipse.org/legal/epl-2.0/
- *
- * SPDX-License-Identifier: EPL-2.0
- *******************************************************************************/
-package org.eclipse.lemminx.maven.searcher;
-
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.FileVisitResult;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.StandardWatchEventKinds;
-import java.nio.file.WatchKey;
-import java.nio.file.WatchService;
-import java.nio.file.attribute.BasicFileAttributes;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
-
-import org.apache.maven.artifact.versioning.ArtifactVersion;
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
-import org.apache.maven.index.artifact.Gav;
-import org.apache.maven.model.Dependency;
-
-public class LocalRepositorySearcher {
-	
-	private File localRepository;
-
-	public LocalRepositorySearcher(File localRepository) {
-		this.localRepository = localRepository;
-	}
-
-	private Map<File, Collection<Gav>> cache = new HashMap<>();
-	private WatchKey watchKey;
-	private WatchService watchService;
-
-	public Set<String> searchGroupIds() throws IOException {
-		return getLocalArtifactsLastVersion().stream().map(Gav::getGroupId).distinct().collect(Collectors.toSet());
-	}
-
-	public Set<String> searchPluginGroupIds() throws IOException {
-		return getLocalPluginArtifacts().stream().map(Gav::getGroupId).distinct().collect(Collectors.toSet());
-	}
-
-	public Collection<Gav> getLocalPluginArtifacts() throws IOException {
-		return getLocalArtifactsLastVersion().stream().filter(gav -> gav.getArtifactId().contains("-plugin")).collect(Collectors.toSet());
-	}
-
-	public Collection<Gav> getLocalArtifactsLastVersion() throws IOException {
-		Collection<Gav> res = cache.get(localRepository);
-		if (res == null) {
-			res = computeLocalArtifacts();
-			Path localRepoPath = localRepository.toPath();
-			watchService = localRepoPath.getFileSystem().newWatchService();
-			watchKey = localRepoPath.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
-			new Thread(() -> {
-				WatchKey key;
-				try {
-					while ((key = watchService.take()) != null) {
-						cache.remove(localRepository);
-						key.reset();
-					}
-				} catch (InterruptedException e) {
-					e.printStackTrace();
-				}
-			}).start();
-			cache.put(localRepository, res);
-		}
-		return res;
-	}
-
-	public Collection<Gav> computeLocalArtifacts() throws IOException {
-		final Path repoPath = localRepository.toPath();
-		Map<String, Gav> groupIdArtifactIdToVersion = new HashMap<>();
-		Files.walkFileTree(repoPath, Collections.emptySet(), 10, new SimpleFileVisitor<Path>() { 
-			@Override
-			public FileVisitResult preVisitDirectory(Path file, BasicFileAttributes attrs) throws IOException {
-				if (file.getFileName().toString().charAt(0) == '.') {
-					return FileVisitResult.SKIP_SUBTREE;
-				}
-				if (Character.isDigit(file.getFileName().toString().charAt(0))) {
-					Path artifactFolderPath = repoPath.relativize(file);
-					ArtifactVersion version = new DefaultArtifactVersion(artifactFolderPath.getFileName().toString());
-					String artifactId = artifactFolderPath.getParent().getFileName().toString();
-					String groupId = artifactFolderPath.getParent().getParent().toString().replace(artifactFolderPath.getFileSystem().getSeparator(), ".");
-					String groupIdArtifactId = groupId + ':' + artifactId;
-					Gav existingGav = groupIdArtifactIdToVersion.get(groupIdArtifactId);
-					boolean replace = existingGav == null;
-					if (existingGav != null) {
-						ArtifactVersion existingVersion = new DefaultArtifactVersion(existingGav.getVersion());
-						replace |= existingVersion.compareTo(version) < 0;
-						replace |= (existingVersion.toString().endsWith("-SNAPSHOT") && !version.toString().endsWith("-SNAPSHOT"));
-					}
-					if (replace) {
-						groupIdArtifactIdToVersion.put(groupIdArtifactId, new Gav(groupId, artifactId, version.toString()));
-					}
-					return FileVisitResult.SKIP_SUBTREE;
-				}
-				return FileVisitResult.CONTINUE;
-			}
-		});
-		return groupIdArtifactIdToVersion.values();
-	}
-
-	public File findLocalFile(Dependency dependency) {
-		return new File(localRepository, dependency.getGroupId().replace('.', File.separatorChar) + File.separatorChar + dependency.getArtifactId() + File.separatorChar + dependency.getVersion() + File.separatorChar + dependency.getArtifactId() + '-' + dependency.getVersion() + ".pom");
-	}
-
-	public void stop() {
-		if (watchService != null && watchKey != null) {
-			watchKey.cancel();
-			try {
-				watchService.close();
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
-			watchKey = null;
-			watchService = null;
-		}
-	}
-
-}
+/*******************************************************************************
+ * Copyright (c) 2019-2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.index.artifact.Gav;
+import org.apache.maven.model.Dependency;
+
+public class LocalRepositorySearcher {
+	
+	private File localRepository;
+	private final LocalRepositoryIndex index;
+	private final LocalRepositoryWatcher watcher;
+	private boolean indexed;
+	private static final int MAX_CACHED_POM_METADATA = 256;
+	/**
+	 * Metadata of the last POMs used to document completion items
+	 */
+	private final Map<File, PomMetadata> pomMetadata = new LinkedHashMap<File, PomMetadata>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<File, PomMetadata> eldest) {
+			return size() > MAX_CACHED_POM_METADATA;
+		}
+	};
+	/**
+	 * POMs being read in background
+	 */
+	private final Set<File> pendingPomFiles = ConcurrentHashMap.newKeySet();
+	private final ExecutorService pomReader = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Local POM reader");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+
+	public LocalRepositorySearcher(File localRepository) {
+		this.localRepository = localRepository;
+		File indexDirectory = new File(localRepository.getAbsoluteFile().getParentFile(), "_maven_index_");
+		this.index = new LocalRepositoryIndex(localRepository, new File(indexDirectory,
+				"local-" + Integer.toHexString(localRepository.getAbsolutePath().hashCode()) + ".index"));
+		this.watcher = new LocalRepositoryWatcher(localRepository, index);
+	}
+
+	public Collection<String> searchGroupIds() throws IOException {
+		return searchGroupIds(null);
+	}
+
+	/**
+	 * @param prefix start of any segment of the groupIds, <code>null</code> or
+	 *               empty for all
+	 */
+	public Collection<String> searchGroupIds(String prefix) throws IOException {
+		ensureIndexed();
+		return index.getPrefixIndex().getGroupIds(prefix);
+	}
+
+	public Collection<String> searchPluginGroupIds() throws IOException {
+		return searchPluginGroupIds(null);
+	}
+
+	public Collection<String> searchPluginGroupIds(String prefix) throws IOException {
+		ensureIndexed();
+		return index.getPrefixIndex().getPluginGroupIds(prefix);
+	}
+
+	public Collection<Gav> getLocalPluginArtifacts() throws IOException {
+		return getLocalPluginArtifacts(null);
+	}
+
+	/**
+	 * @param prefix start of any segment of the artifactIds, <code>null</code> or
+	 *               empty for all
+	 */
+	public Collection<Gav> getLocalPluginArtifacts(String prefix) throws IOException {
+		ensureIndexed();
+		return index.getPrefixIndex().getPluginArtifacts(prefix);
+	}
+
+	public Collection<Gav> getLocalArtifactsLastVersion(String prefix) throws IOException {
+		ensureIndexed();
+		return index.getPrefixIndex().getArtifacts(prefix);
+	}
+
+	public Collection<Gav> getLocalArtifactsLastVersion() throws IOException {
+		return getLocalArtifactsLastVersion(null);
+	}
+
+	/**
+	 * @return the installed versions of the artifact, from newest to oldest. All
+	 *         groups are considered if the dependency has no groupId.
+	 */
+	public List<ArtifactVersion> getLocalArtifactVersions(Dependency artifact) throws IOException {
+		ensureIndexed();
+		List<ArtifactVersion> res = new ArrayList<>(index.getVersions(artifact.getGroupId(), artifact.getArtifactId()));
+		Collections.reverse(res);
+		return res;
+	}
+
+	/**
+	 * @return whether the version of the artifact is installed, without
+	 *         accessing the repository once it's indexed
+	 */
+	public boolean isInstalled(Dependency artifact) throws IOException {
+		ensureIndexed();
+		return index.isInstalled(artifact.getGroupId(), artifact.getArtifactId(), artifact.getVersion());
+	}
+
+	/**
+	 * Brings the stored index up-to-date the first time, it's then updated by
+	 * the watcher.
+	 */
+	private synchronized void ensureIndexed() throws IOException {
+		if (!indexed) {
+			index.refresh();
+			indexed = true;
+			watcher.start();
+		}
+	}
+
+	/**
+	 * Returns the name, description and URL of an installed POM without reading
+	 * it: if its metadata isn't cached, it's read in background for the next
+	 * requests.
+	 * 
+	 * @return the cached metadata, or <code>null</code> if it's not cached yet
+	 */
+	public PomMetadata getCachedPomMetadata(Dependency artifact) {
+		File pomFile = findLocalFile(artifact);
+		PomMetadata cached = getCachedPomMetadata(pomFile);
+		if (cached == null && pendingPomFiles.add(pomFile)) {
+			try {
+				pomReader.execute(() -> {
+					try {
+						readPomMetadata(pomFile);
+					} finally {
+						pendingPomFiles.remove(pomFile);
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				// stopped
+				pendingPomFiles.remove(pomFile);
+			}
+		}
+		return cached;
+	}
+
+	private PomMetadata getCachedPomMetadata(File pomFile) {
+		synchronized (pomMetadata) {
+			PomMetadata metadata = pomMetadata.get(pomFile);
+			return metadata != null && metadata.isUpToDate(pomFile) ? metadata : null;
+		}
+	}
+
+	private void readPomMetadata(File pomFile) {
+		if (!pomFile.isFile()) {
+			return;
+		}
+		PomMetadata metadata = PomMetadata.read(pomFile);
+		if (metadata != null) {
+			synchronized (pomMetadata) {
+				pomMetadata.put(pomFile, metadata);
+			}
+		}
+	}
+
+	public File findLocalFile(Dependency dependency) {
+		return new File(localRepository, dependency.getGroupId().replace('.', File.separatorChar) + File.separatorChar + dependency.getArtifactId() + File.separatorChar + dependency.getVersion() + File.separatorChar + dependency.getArtifactId() + '-' + dependency.getVersion() + ".pom");
+	}
+
+	public void stop() {
+		watcher.stop();
+		index.stop();
+		pomReader.shutdownNow();
+	}
+
+}
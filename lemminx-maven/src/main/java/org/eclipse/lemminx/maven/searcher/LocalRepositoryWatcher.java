@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a {@link LocalRepositoryIndex} up-to-date. All the groupId and
+ * artifactId directories of the repository are watched; bursts of events, such
+ * as the ones of a <code>mvn install</code>, are collapsed and only the
+ * directories that changed are listed again. When the directories can't all be
+ * watched (unsupported, or too many for the file system), the index is polled
+ * periodically instead.
+ */
+public class LocalRepositoryWatcher {
+
+	/**
+	 * Quiet time after the last event before the changes are applied
+	 */
+	private static final long DEBOUNCE_DELAY_MS = 500;
+	/**
+	 * Maximum time changes wait while events keep coming
+	 */
+	private static final long MAX_DEBOUNCE_DELAY_MS = 5000;
+	private static final long POLLING_PERIOD_S = 30;
+
+	private final File repository;
+	private final LocalRepositoryIndex index;
+
+	private WatchService watchService;
+	private Thread watchThread;
+	private ScheduledExecutorService pollingExecutor;
+	private boolean stopped;
+
+	public LocalRepositoryWatcher(File repository, LocalRepositoryIndex index) {
+		this.repository = repository;
+		this.index = index;
+	}
+
+	/**
+	 * Starts watching the directories currently known to the index. They're
+	 * registered by the watching thread, as there can be tens of thousands.
+	 */
+	public synchronized void start() {
+		if (stopped || watchService != null || pollingExecutor != null) {
+			return;
+		}
+		try {
+			WatchService service = repository.toPath().getFileSystem().newWatchService();
+			watchService = service;
+			watchThread = new Thread(() -> watch(service), "Local repository watcher");
+			watchThread.setDaemon(true);
+			watchThread.start();
+		} catch (IOException | UnsupportedOperationException e) {
+			startPolling();
+		}
+	}
+
+	private static void register(WatchService service, Collection<File> directories) throws IOException {
+		for (File directory : directories) {
+			try {
+				directory.toPath().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_DELETE);
+			} catch (NoSuchFileException e) {
+				// already removed, its parent reports it
+			}
+		}
+	}
+
+	private void watch(WatchService service) {
+		Set<File> changedDirectories = new HashSet<>();
+		boolean overflow = false;
+		long firstChange = 0;
+		try {
+			register(service, index.getDirectories());
+			while (!Thread.currentThread().isInterrupted()) {
+				WatchKey key = changedDirectories.isEmpty() && !overflow ? service.take()
+						: service.poll(DEBOUNCE_DELAY_MS, TimeUnit.MILLISECONDS);
+				if (key != null) {
+					if (changedDirectories.isEmpty() && !overflow) {
+						firstChange = System.currentTimeMillis();
+					}
+					Path directory = (Path) key.watchable();
+					changedDirectories.add(directory.toFile());
+					for (WatchEvent<?> event : key.pollEvents()) {
+						if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+							overflow = true;
+						} else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+							changedDirectories.add(directory.resolve((Path) event.context()).toFile());
+						}
+					}
+					key.reset();
+				}
+				if (key == null || System.currentTimeMillis() - firstChange > MAX_DEBOUNCE_DELAY_MS) {
+					Collection<File> newDirectories = Collections.emptyList();
+					try {
+						if (overflow) {
+							// events were lost, check all the directories
+							index.refresh();
+							newDirectories = index.getDirectories();
+						} else {
+							newDirectories = index.refresh(changedDirectories);
+						}
+					} catch (IOException e) {
+						e.printStackTrace();
+					}
+					register(service, newDirectories);
+					changedDirectories.clear();
+					overflow = false;
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// stopped
+		} catch (IOException e) {
+			// new directories can't be watched anymore
+			e.printStackTrace();
+			synchronized (this) {
+				closeWatchService();
+				if (!stopped) {
+					startPolling();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Refreshes the index periodically, which checks the modification time of
+	 * all its directories, artifacts included.
+	 */
+	private void startPolling() {
+		closeWatchService();
+		pollingExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Local repository polling");
+			thread.setDaemon(true);
+			return thread;
+		});
+		pollingExecutor.scheduleWithFixedDelay(() -> {
+			try {
+				index.refresh();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}, POLLING_PERIOD_S, POLLING_PERIOD_S, TimeUnit.SECONDS);
+	}
+
+	private void closeWatchService() {
+		if (watchService != null) {
+			try {
+				watchService.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			watchService = null;
+		}
+	}
+
+	/**
+	 * Stops watching and polling, and waits for the watching thread to end.
+	 */
+	public void stop() {
+		Thread thread;
+		synchronized (this) {
+			stopped = true;
+			closeWatchService();
+			if (pollingExecutor != null) {
+				pollingExecutor.shutdownNow();
+				pollingExecutor = null;
+			}
+			thread = watchThread;
+			watchThread = null;
+		}
+		if (thread != null) {
+			thread.interrupt();
+			try {
+				thread.join(TimeUnit.SECONDS.toMillis(1));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.codehaus.plexus.util.ReaderFactory;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * The descriptive elements of an installed POM, used to document completion
+ * items of local artifacts.
+ */
+public final class PomMetadata {
+
+	private final String name;
+	private final String description;
+	private final String url;
+	private final long pomLastModified;
+
+	private PomMetadata(String name, String description, String url, long pomLastModified) {
+		this.name = name;
+		this.description = description;
+		this.url = url;
+		this.pomLastModified = pomLastModified;
+	}
+
+	/**
+	 * @return the metadata of the POM, or <code>null</code> if it can't be read
+	 */
+	static PomMetadata read(File pomFile) {
+		long lastModified = pomFile.lastModified();
+		try (Reader reader = ReaderFactory.newXmlReader(pomFile)) {
+			Model model = new MavenXpp3Reader().read(reader, false);
+			return new PomMetadata(model.getName(), model.getDescription(), model.getUrl(), lastModified);
+		} catch (IOException | XmlPullParserException e) {
+			return null;
+		}
+	}
+
+	boolean isUpToDate(File pomFile) {
+		return pomFile.lastModified() == pomLastModified;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public String getDescription() {
+		return description;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+}
@@ -0,0 +1,66 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+
+import org.codehaus.plexus.util.ReaderFactory;
+import org.codehaus.plexus.util.xml.pull.MXParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParser;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Reads the packaging of an installed POM without parsing the whole file: the
+ * POM is streamed and parsing stops at the packaging, at the first element
+ * that usually follows it, or after a bounded number of lines.
+ */
+public class PomPackagingReader {
+
+	private static final String DEFAULT_PACKAGING = "jar";
+	private static final int MAX_LINES = 500;
+	/**
+	 * Children of <code>project</code> that come after the packaging in the
+	 * conventional order
+	 */
+	private static final Collection<String> FOLLOWING_ELEMENTS = new HashSet<>(Arrays.asList("dependencyManagement",
+			"dependencies", "build", "reporting", "profiles", "repositories", "pluginRepositories"));
+
+	private PomPackagingReader() {
+	}
+
+	/**
+	 * @return the packaging, or <code>null</code> if the POM can't be read
+	 */
+	public static String readPackaging(File pomFile) {
+		try (Reader reader = ReaderFactory.newXmlReader(pomFile)) {
+			XmlPullParser parser = new MXParser();
+			parser.setInput(reader);
+			int eventType;
+			while ((eventType = parser.next()) != XmlPullParser.END_DOCUMENT && parser.getLineNumber() <= MAX_LINES) {
+				if (eventType == XmlPullParser.START_TAG && parser.getDepth() == 2) {
+					if ("packaging".equals(parser.getName())) {
+						String packaging = parser.nextText().trim();
+						return packaging.isEmpty() ? DEFAULT_PACKAGING : packaging;
+					}
+					if (FOLLOWING_ELEMENTS.contains(parser.getName())) {
+						break;
+					}
+				}
+			}
+			return DEFAULT_PACKAGING;
+		} catch (IOException | XmlPullParserException e) {
+			return null;
+		}
+	}
+}
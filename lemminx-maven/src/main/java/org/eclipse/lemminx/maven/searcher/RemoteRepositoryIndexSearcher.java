@@ -16,22 +16,27 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
-import org.apache.lucene.search.Query;
 import org.apache.maven.artifact.versioning.ArtifactVersion;
-import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.Indexer;
 import org.apache.maven.index.IteratorSearchRequest;
@@ -48,21 +53,44 @@ import org.apache.maven.index.updater.WagonHelper;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
 import org.apache.maven.project.MavenProject;
-import org.apache.maven.repository.RepositorySystem;
 import org.apache.maven.wagon.Wagon;
 import org.apache.maven.wagon.events.TransferEvent;
 import org.apache.maven.wagon.observers.AbstractTransferListener;
 import org.codehaus.plexus.PlexusContainer;
 import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.lemminx.maven.BoundedSoftCache;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 
 public class RemoteRepositoryIndexSearcher {
 	private static final String PACKAGING_TYPE_JAR = "jar";
 	private static final String PACKAGING_TYPE_MAVEN_PLUGIN = "maven-plugin";
+	/**
+	 * Maximum number of index hits read for a completion search, the most
+	 * relevant first. There's a hit per version of an artifact.
+	 */
+	private static final int MAX_SEARCH_HITS = 5000;
+	/**
+	 * Maximum number of distinct artifacts returned by a completion search
+	 */
+	private static final int MAX_SEARCH_ARTIFACTS = 200;
+	/**
+	 * Hits are per artifact version, many of them share a groupId
+	 */
+	private static final int MAX_GROUP_ID_SEARCH_HITS = 7500;
+	private static final CancelChecker NOT_CANCELLABLE = () -> {
+	};
+	private static final int MAX_CACHED_QUERIES = 500;
+	/**
+	 * Number of distinct versions above which the versions parsed for remote
+	 * searches are forgotten
+	 */
+	private static final int MAX_VERSIONS = 20000;
 
 	public static final RemoteRepository CENTRAL_REPO = new RemoteRepository.Builder("central", "default", "https://repo.maven.apache.org/maven2").build();
 	private final Set<RemoteRepository> knownRepositories;
 	
 	private Indexer indexer;
+	private IndexQueries queries;
 
 	private IndexUpdater indexUpdater;
 
@@ -75,9 +103,105 @@ public class RemoteRepositoryIndexSearcher {
 	private Map<URI, IndexingContext> indexingContexts = new HashMap<>();
 	private Map<IndexingContext, CompletableFuture<IndexingContext>> indexDownloadJobs = new HashMap<>();
 
+	private final CompletableFuture<Void> initialization;
+
+	/**
+	 * Results of the last searches. Keys hold the timestamps of the searched
+	 * indexes, so results searched before an index update aren't found anymore
+	 * and are evicted as the least recently used.
+	 */
+	private final BoundedSoftCache<QueryKey, List<?>> queryCache = new BoundedSoftCache<>(MAX_CACHED_QUERIES);
+	/**
+	 * Versions of the searched remote artifacts, apart from the local ones so
+	 * that they can be forgotten
+	 */
+	private final VersionTable versionTable = new VersionTable();
+	/**
+	 * GroupIds of each index, rebuilt after the index is updated
+	 */
+	private final Map<IndexingContext, GroupIdDictionary> groupIdDictionaries = new ConcurrentHashMap<>();
+
+	private enum QueryKind {
+		VERSIONS, ARTIFACT_IDS, GROUP_IDS
+	}
+
+	private static final class QueryKey {
+		private final QueryKind kind;
+		private final String packaging;
+		private final String groupId;
+		private final String artifactId;
+		private final int maxResults;
+		/**
+		 * <code>id@timestamp</code> of each searched index
+		 */
+		private final List<String> contexts;
+
+		QueryKey(QueryKind kind, String packaging, String groupId, String artifactId, int maxResults,
+				List<IndexingContext> contexts) {
+			this.kind = kind;
+			this.packaging = packaging;
+			this.groupId = groupId;
+			this.artifactId = artifactId;
+			this.maxResults = maxResults;
+			this.contexts = contexts.stream().map(context -> context.getId() + '@' + getTimestamp(context))
+					.collect(Collectors.toList());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(kind, packaging, groupId, artifactId, maxResults, contexts);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof QueryKey)) {
+				return false;
+			}
+			QueryKey other = (QueryKey) obj;
+			return kind == other.kind && maxResults == other.maxResults && packaging.equals(other.packaging)
+					&& Objects.equals(groupId, other.groupId) && Objects.equals(artifactId, other.artifactId)
+					&& contexts.equals(other.contexts);
+		}
+	}
+
 	public RemoteRepositoryIndexSearcher(PlexusContainer plexusContainer) {
+		this(CompletableFuture.completedFuture(plexusContainer),
+				new File(new LocalRepositoryLocator().getDefaultLocalRepository().getParentFile(), "_maven_index_"));
+	}
+
+	public RemoteRepositoryIndexSearcher(CompletableFuture<PlexusContainer> plexusContainer, File indexPath) {
+		this(plexusContainer, indexPath, Collections.singleton(CENTRAL_REPO));
+	}
+
+	/**
+	 * Components are looked up, and indexes of known repositories updated, in
+	 * background once the container is available. Until then, indexing contexts
+	 * aren't available and searches don't return anything.
+	 * 
+	 * @param indexPath    directory where the remote indexes are downloaded
+	 * @param repositories repositories whose index is updated right away
+	 */
+	public RemoteRepositoryIndexSearcher(CompletableFuture<PlexusContainer> plexusContainer, File indexPath,
+			Collection<RemoteRepository> repositories) {
+		// updated by project builds while the initialization reads it
+		this.knownRepositories = ConcurrentHashMap.newKeySet();
+		knownRepositories.addAll(repositories);
+		this.indexPath = indexPath;
+		this.initialization = plexusContainer.thenAcceptAsync(this::lookupComponents);
+		initialization.thenRun(() -> {
+			indexPath.mkdirs();
+			knownRepositories.stream().map(RemoteRepository::getUrl).map(URI::create).forEach(this::getIndexingContext);
+		});
+		// TODO knownRepositories.addAll(readRepositoriesFromSettings());
+	}
+
+	private void lookupComponents(PlexusContainer plexusContainer) {
 		try {
 			indexer = plexusContainer.lookup(Indexer.class);
+			queries = new IndexQueries(indexer);
 			indexUpdater = plexusContainer.lookup(IndexUpdater.class);
 			resourceFetcher = new WagonHelper.WagonFetcher(plexusContainer.lookup(Wagon.class, "http"), new AbstractTransferListener() {
 				@Override
@@ -100,16 +224,21 @@ public class RemoteRepositoryIndexSearcher {
 		} catch (Exception e) {
 			e.printStackTrace();
 		}
-		this.knownRepositories = new HashSet<>();
-		knownRepositories.add(CENTRAL_REPO);
-		File localRepository = new File(RepositorySystem.defaultUserLocalRepository.getAbsolutePath());
-		this.indexPath = new File(localRepository.getParent(), "_maven_index_");
-		indexPath.mkdirs();
-		knownRepositories.stream().map(RemoteRepository::getUrl).map(URI::create).forEach(this::getIndexingContext);
-		// TODO knownRepositories.addAll(readRepositoriesFromSettings());
+	}
+
+	/**
+	 * @return completed once the components are looked up
+	 */
+	public CompletableFuture<Void> getInitialization() {
+		return initialization.thenRun(() -> {
+		});
 	}
 
 	public CompletableFuture<IndexingContext> getIndexingContext(URI repositoryUrl) {
+		return initialization.thenCompose(theVoid -> internalGetIndexingContext(repositoryUrl));
+	}
+
+	private CompletableFuture<IndexingContext> internalGetIndexingContext(URI repositoryUrl) {
 //		if (!repositoryUrl.toString().endsWith("/")) {
 //			repositoryUrl = URI.create(repositoryUrl.toString() + "/");
 //		}
@@ -127,36 +256,54 @@ public class RemoteRepositoryIndexSearcher {
 		}
 	}
 	
-	private Set<ArtifactVersion> internalGetArtifactVersions(Dependency artifactToSearch, String packaging, IndexingContext... requestSpecificContexts) {
-		if (artifactToSearch.getArtifactId() == null || artifactToSearch.getArtifactId().trim().isEmpty()) {
-			return Collections.emptySet();
-		}
-		BooleanQuery.Builder builder = new BooleanQuery.Builder();
-		if (artifactToSearch.getGroupId() != null) {
-			builder.add(indexer.constructQuery(MAVEN.GROUP_ID, artifactToSearch.getGroupId(), SearchType.EXACT), Occur.MUST);
+	/**
+	 * Streams the versions of the artifact as they're found, each version once.
+	 * 
+	 * @param onlyPlugins   whether to search the <code>maven-plugin</code>
+	 *                      packaging rather than <code>jar</code>
+	 * @param maxResults    number of versions after which the search stops
+	 * @param cancelChecker checked before each hit, a cancellation stops the
+	 *                      search and is rethrown
+	 */
+	public void searchArtifactVersions(Dependency artifactToSearch, boolean onlyPlugins, int maxResults, CancelChecker cancelChecker,
+			Consumer<ArtifactVersion> consumer, IndexingContext... requestSpecificContexts) {
+		String groupId = normalize(artifactToSearch.getGroupId());
+		String artifactId = normalize(artifactToSearch.getArtifactId());
+		if (artifactId == null) {
+			return;
 		}
-		builder.add(indexer.constructQuery(MAVEN.ARTIFACT_ID, artifactToSearch.getArtifactId(), SearchType.EXACT), Occur.SHOULD);
-		builder.add(indexer.constructQuery(MAVEN.PACKAGING, packaging, SearchType.EXACT), Occur.MUST);
-		final BooleanQuery query = builder.build();
-
-		List<IndexingContext> contexts = Collections.unmodifiableList(requestSpecificContexts != null && requestSpecificContexts.length > 0 ?
-				Arrays.asList(requestSpecificContexts) :
-				new LinkedList<>(indexingContexts.values()));
-		final IteratorSearchRequest request = new IteratorSearchRequest(query, contexts, null);
+		List<IndexingContext> contexts = getContexts(requestSpecificContexts);
+		QueryKey key = new QueryKey(QueryKind.VERSIONS, getPackaging(onlyPlugins), groupId, artifactId, maxResults, contexts);
+		cachedSearch(key, cancelChecker, consumer, resultConsumer -> {
+			final IteratorSearchRequest request = new IteratorSearchRequest(
+					queries.newVersionsQuery(groupId, artifactId, key.packaging), contexts, null);
+			VersionTable versions = getVersionTable();
+			Set<String> found = new HashSet<>();
+			iterateHits(artifactToSearch, request, cancelChecker, hit -> {
+				if (hit.getVersion() != null && found.add(hit.getVersion())) {
+					resultConsumer.accept(versions.get(hit.getVersion()));
+				}
+				return found.size() < maxResults;
+			});
+		});
+	}
 
-		return createIndexerQuery(artifactToSearch, request).stream()
-				.map(ArtifactInfo::getVersion)
-				.map(DefaultArtifactVersion::new)
-				.sorted()
-				.collect(Collectors.toSet());
+	private Set<ArtifactVersion> internalGetArtifactVersions(Dependency artifactToSearch, boolean onlyPlugins, IndexingContext... requestSpecificContexts) {
+		List<ArtifactVersion> res = new ArrayList<>();
+		searchArtifactVersions(artifactToSearch, onlyPlugins, Integer.MAX_VALUE, NOT_CANCELLABLE, res::add, requestSpecificContexts);
+		// sorted on precomputed keys, from oldest to newest
+		Comparator<String> versionComparator = getVersionTable()
+				.comparator(res.stream().map(ArtifactVersion::toString).collect(Collectors.toList()));
+		res.sort(Comparator.comparing(ArtifactVersion::toString, versionComparator));
+		return new LinkedHashSet<>(res);
 	}
 
 	public Set<ArtifactVersion> getArtifactVersions(Dependency artifactToSearch, IndexingContext... requestSpecificContexts) {
-		return internalGetArtifactVersions(artifactToSearch, PACKAGING_TYPE_JAR, requestSpecificContexts);
+		return internalGetArtifactVersions(artifactToSearch, false, requestSpecificContexts);
 	}
 	
 	public Set<ArtifactVersion> getPluginArtifactVersions(Dependency artifactToSearch, IndexingContext... requestSpecificContexts) {
-		return internalGetArtifactVersions(artifactToSearch, PACKAGING_TYPE_MAVEN_PLUGIN, requestSpecificContexts);
+		return internalGetArtifactVersions(artifactToSearch, true, requestSpecificContexts);
 	}
 	
 	private Collection<ArtifactInfo> internalGetArtifactIds(Dependency artifactToSearch, String packaging, IndexingContext... requestSpecificContexts) {
@@ -168,17 +315,16 @@ public class RemoteRepositoryIndexSearcher {
 			queryBuilder.add(indexer.constructQuery(MAVEN.ARTIFACT_ID, artifactToSearch.getArtifactId(), SearchType.EXACT), Occur.MUST);
 		}
 		queryBuilder.add(indexer.constructQuery(MAVEN.PACKAGING, packaging, SearchType.EXACT), Occur.MUST);
-		final BooleanQuery query = queryBuilder.build();
-		List<IndexingContext> contexts = Collections.unmodifiableList(requestSpecificContexts != null && requestSpecificContexts.length > 0 ?
-				Arrays.asList(requestSpecificContexts) :
-				new LinkedList<>(indexingContexts.values()));
-		final IteratorSearchRequest request = new IteratorSearchRequest(query, contexts, null);
-		return createIndexerQuery(artifactToSearch, request);
+		final IteratorSearchRequest request = new IteratorSearchRequest(queryBuilder.build(), getContexts(requestSpecificContexts), null);
+		request.setCount(MAX_SEARCH_HITS);
+		List<ArtifactInfo> res = new ArrayList<>();
+		collapseByArtifact(artifactToSearch, request, MAX_SEARCH_ARTIFACTS, NOT_CANCELLABLE, res::add);
+		return res;
 	}
 
 	/**
 	 * @param artifactToSearch a CompletableFuture containing a {@code Map<String artifactId, String artifactDescription>} 
-	 * @return
+	 * @return the newest version of each matching artifact
 	 */
 	public Collection<ArtifactInfo> getArtifactIds(Dependency artifactToSearch, IndexingContext... requestSpecificContexts) {
 		return internalGetArtifactIds(artifactToSearch, PACKAGING_TYPE_JAR, requestSpecificContexts);
@@ -188,26 +334,167 @@ public class RemoteRepositoryIndexSearcher {
 		return internalGetArtifactIds(artifactToSearch, PACKAGING_TYPE_MAVEN_PLUGIN, requestSpecificContexts);
 	}
 
-	private Set<String> internalGetGroupIds(Dependency artifactToSearch, String packaging, IndexingContext... requestSpecificContexts) {
-		final Query groupIdQ = indexer.constructQuery(MAVEN.GROUP_ID, artifactToSearch.getGroupId(), SearchType.SCORED);
-		final Query jarPackagingQ = indexer.constructQuery(MAVEN.PACKAGING, packaging, SearchType.EXACT);
-		final BooleanQuery query = new BooleanQuery.Builder().add(groupIdQ, Occur.MUST).add(jarPackagingQ, Occur.MUST)
-				.build();
-		List<IndexingContext> contexts = Collections.unmodifiableList(requestSpecificContexts != null && requestSpecificContexts.length > 0 ?
-				Arrays.asList(requestSpecificContexts) :
-				new LinkedList<>(indexingContexts.values()));
-		final IteratorSearchRequest request = new IteratorSearchRequest(query, contexts, null);
-		// TODO: Find the Count sweet spot
-		request.setCount(7500);
-		return createIndexerQuery(artifactToSearch, request).stream().map(ArtifactInfo::getGroupId).collect(Collectors.toSet());		
+	/**
+	 * Searches the artifacts whose artifactId starts with, or is close to, the
+	 * artifactId of the given artifact, in the groupId of the artifact if it has
+	 * one. Hits are bounded and come the most relevant first: exact matches, then
+	 * prefix matches, then matches with typos.
+	 * <p>
+	 * The newest version of an artifact is only known once all the hits are
+	 * read, so artifacts are passed to the consumer at the end of the search, in
+	 * the order of their most relevant hit.
+	 * 
+	 * @param maxResults    maximum number of artifacts, hits of other artifacts
+	 *                      being skipped once it's reached
+	 * @param cancelChecker checked before each hit, a cancellation stops the
+	 *                      search and is rethrown
+	 */
+	public void searchArtifactIds(Dependency artifactToSearch, boolean onlyPlugins, int maxResults, CancelChecker cancelChecker,
+			Consumer<ArtifactInfo> consumer, IndexingContext... requestSpecificContexts) {
+		String groupId = normalize(artifactToSearch.getGroupId());
+		String artifactId = normalize(artifactToSearch.getArtifactId());
+		int maxArtifacts = Math.min(maxResults, MAX_SEARCH_ARTIFACTS);
+		List<IndexingContext> contexts = getContexts(requestSpecificContexts);
+		QueryKey key = new QueryKey(QueryKind.ARTIFACT_IDS, getPackaging(onlyPlugins), groupId, artifactId, maxArtifacts, contexts);
+		cachedSearch(key, cancelChecker, consumer, resultConsumer -> {
+			final IteratorSearchRequest request = new IteratorSearchRequest(
+					queries.newArtifactIdsQuery(groupId, artifactId, key.packaging), contexts, null);
+			request.setCount(MAX_SEARCH_HITS);
+			collapseByArtifact(artifactToSearch, request, maxArtifacts, cancelChecker, resultConsumer);
+		});
+	}
+
+	/**
+	 * Streams the groupIds matching the groupId of the given artifact, each
+	 * groupId once. The groupIds starting with it are looked up, sorted, in the
+	 * groupId dictionaries of the indexes. If there's none, or the dictionaries
+	 * aren't built yet, the index is searched for groupIds with typos or matching
+	 * a segment, the most relevant first.
+	 * 
+	 * @param maxResults    number of groupIds after which the search stops
+	 * @param cancelChecker checked before each hit, a cancellation stops the
+	 *                      search and is rethrown
+	 */
+	public void searchGroupIds(Dependency artifactToSearch, boolean onlyPlugins, int maxResults, CancelChecker cancelChecker,
+			Consumer<String> consumer, IndexingContext... requestSpecificContexts) {
+		String groupId = normalize(artifactToSearch.getGroupId());
+		List<IndexingContext> contexts = getContexts(requestSpecificContexts);
+		Collection<String> dictionaryGroupIds = getDictionaryGroupIds(groupId, onlyPlugins, contexts);
+		if (dictionaryGroupIds != null && !dictionaryGroupIds.isEmpty()) {
+			int count = 0;
+			for (String dictionaryGroupId : dictionaryGroupIds) {
+				cancelChecker.checkCanceled();
+				consumer.accept(dictionaryGroupId);
+				if (++count >= maxResults) {
+					break;
+				}
+			}
+			return;
+		}
+		QueryKey key = new QueryKey(QueryKind.GROUP_IDS, getPackaging(onlyPlugins), groupId, null, maxResults, contexts);
+		cachedSearch(key, cancelChecker, consumer, resultConsumer -> {
+			final IteratorSearchRequest request = new IteratorSearchRequest(queries.newGroupIdsQuery(groupId, key.packaging),
+					contexts, null);
+			request.setCount(MAX_GROUP_ID_SEARCH_HITS);
+			Set<String> found = new HashSet<>();
+			iterateHits(artifactToSearch, request, cancelChecker, hit -> {
+				if (found.add(hit.getGroupId())) {
+					resultConsumer.accept(hit.getGroupId());
+				}
+				return found.size() < maxResults;
+			});
+		});
+	}
+
+	/**
+	 * @return the sorted groupIds starting with the prefix, or <code>null</code>
+	 *         if a context has no dictionary up-to-date with its index
+	 */
+	private Collection<String> getDictionaryGroupIds(String prefix, boolean onlyPlugins, List<IndexingContext> contexts) {
+		if (contexts.isEmpty()) {
+			return null;
+		}
+		Collection<String> res = contexts.size() == 1 ? null : new TreeSet<>();
+		for (IndexingContext context : contexts) {
+			GroupIdDictionary dictionary = groupIdDictionaries.get(context);
+			if (dictionary == null || dictionary.getTimestamp() != getTimestamp(context)) {
+				return null;
+			}
+			if (res == null) {
+				return dictionary.getGroupIds(prefix, onlyPlugins);
+			}
+			res.addAll(dictionary.getGroupIds(prefix, onlyPlugins));
+		}
+		return res;
+	}
+
+	/**
+	 * Passes the cached results of the query to the consumer, or runs the search
+	 * and caches its results. Cancelled searches throw before their partial
+	 * results are cached, empty results aren't cached since indexes still being
+	 * downloaded return nothing. Cached results are passed to every search of
+	 * the same query, so consumers must not modify them.
+	 * 
+	 * @param search runs the query, passing each result to the given consumer
+	 */
+	private <T> void cachedSearch(QueryKey key, CancelChecker cancelChecker, Consumer<T> consumer,
+			Consumer<Consumer<T>> search) {
+		@SuppressWarnings("unchecked")
+		List<T> cachedResults = (List<T>) queryCache.get(key);
+		if (cachedResults != null) {
+			for (T result : cachedResults) {
+				cancelChecker.checkCanceled();
+				consumer.accept(result);
+			}
+			return;
+		}
+		List<T> results = new ArrayList<>();
+		search.accept(result -> {
+			results.add(result);
+			consumer.accept(result);
+		});
+		if (!results.isEmpty()) {
+			queryCache.put(key, Collections.unmodifiableList(results));
+		}
+	}
+
+	/**
+	 * @return hit, miss and eviction counts of the cache of search results
+	 */
+	public BoundedSoftCache.Statistics getQueryCacheStatistics() {
+		return queryCache.getStatistics();
+	}
+
+	/**
+	 * @return the trimmed text, or <code>null</code> if there's none
+	 */
+	private static String normalize(String text) {
+		return text == null || text.trim().isEmpty() ? null : text.trim();
+	}
+
+	private Set<String> internalGetGroupIds(Dependency artifactToSearch, boolean onlyPlugins, IndexingContext... requestSpecificContexts) {
+		// sorted, or in relevance order
+		Set<String> res = new LinkedHashSet<>();
+		searchGroupIds(artifactToSearch, onlyPlugins, Integer.MAX_VALUE, NOT_CANCELLABLE, res::add, requestSpecificContexts);
+		return res;
 	}
 	// TODO: Get groupid description for completion
 	public Set<String> getGroupIds(Dependency artifactToSearch, IndexingContext... requestSpecificContexts) {
-		return internalGetGroupIds(artifactToSearch, PACKAGING_TYPE_JAR, requestSpecificContexts);
+		return internalGetGroupIds(artifactToSearch, false, requestSpecificContexts);
 	}
 	
 	public Set<String> getPluginGroupIds(Dependency artifactToSearch, IndexingContext... requestSpecificContexts) {
-		return internalGetGroupIds(artifactToSearch, PACKAGING_TYPE_MAVEN_PLUGIN, requestSpecificContexts);
+		return internalGetGroupIds(artifactToSearch, true, requestSpecificContexts);
+	}
+
+	private static String getPackaging(boolean onlyPlugins) {
+		return onlyPlugins ? PACKAGING_TYPE_MAVEN_PLUGIN : PACKAGING_TYPE_JAR;
+	}
+
+	private List<IndexingContext> getContexts(IndexingContext... requestSpecificContexts) {
+		return Collections.unmodifiableList(requestSpecificContexts != null && requestSpecificContexts.length > 0 ?
+				Arrays.asList(requestSpecificContexts) :
+				new LinkedList<>(indexingContexts.values()));
 	}
 
 	private CompletableFuture<Void> updateIndex(IndexingContext context) {
@@ -234,6 +521,7 @@ public class RemoteRepositoryIndexSearcher {
 				} else {
 					System.err.println("Index update failed for " + context.getRepositoryUrl());
 				}
+				updateGroupIdDictionary(context);
 			} catch (IOException e) {
 				// TODO: Fix this - the maven central context gets reported as broken when
 				// another context is broken
@@ -249,8 +537,50 @@ public class RemoteRepositoryIndexSearcher {
 		});
 	}
 
+	/**
+	 * Loads the groupId dictionary of the index, or builds and stores it if the
+	 * index was updated since it was built.
+	 */
+	private void updateGroupIdDictionary(IndexingContext context) {
+		long timestamp = getTimestamp(context);
+		if (timestamp == 0) {
+			// no index downloaded
+			return;
+		}
+		GroupIdDictionary dictionary = groupIdDictionaries.get(context);
+		if (dictionary != null && dictionary.getTimestamp() == timestamp) {
+			return;
+		}
+		File dictionaryFile = new File(indexPath, getFileSystemFriendlyName(URI.create(context.getRepositoryUrl())) + "-groupIds");
+		dictionary = GroupIdDictionary.read(dictionaryFile);
+		if (dictionary == null || dictionary.getTimestamp() != timestamp) {
+			try {
+				dictionary = GroupIdDictionary.build(context,
+						indexer.constructQuery(MAVEN.PACKAGING, PACKAGING_TYPE_JAR, SearchType.EXACT),
+						indexer.constructQuery(MAVEN.PACKAGING, PACKAGING_TYPE_MAVEN_PLUGIN, SearchType.EXACT));
+			} catch (IOException e) {
+				e.printStackTrace();
+				return;
+			}
+			try {
+				dictionary.write(dictionaryFile);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		groupIdDictionaries.put(context, dictionary);
+	}
+
+	private static long getTimestamp(IndexingContext context) {
+		return context.getTimestamp() != null ? context.getTimestamp().getTime() : 0;
+	}
+
+	private static String getFileSystemFriendlyName(URI repoUrl) {
+		return repoUrl.getHost() + repoUrl.hashCode();
+	}
+
 	private IndexingContext initializeContext(URI repoUrl) {
-		String fileSystemFriendlyName = repoUrl.getHost() + repoUrl.hashCode();
+		String fileSystemFriendlyName = getFileSystemFriendlyName(repoUrl);
 		File repoFile = new File(indexPath, fileSystemFriendlyName + "-cache");
 		File repoIndex = new File(indexPath, fileSystemFriendlyName + "-index");
 		try {
@@ -263,6 +593,10 @@ public class RemoteRepositoryIndexSearcher {
 	}
 
 	public void closeContext() {
+		if (!initialization.isDone()) {
+			// don't start index downloads anymore
+			initialization.cancel(false);
+		}
 		for (IndexingContext context : indexingContexts.values()) {
 			try {
 				indexer.closeIndexingContext(context, false);
@@ -277,6 +611,7 @@ public class RemoteRepositoryIndexSearcher {
 		}
 		indexingContexts.clear();
 		indexDownloadJobs.clear();
+		groupIdDictionaries.clear();
 	}
 
 	public void updateKnownRepositories(MavenProject project) {
@@ -309,20 +644,45 @@ public class RemoteRepositoryIndexSearcher {
 	}
 
 
-	private List<ArtifactInfo> createIndexerQuery(Dependency artifactToSearch, final IteratorSearchRequest request) {
-		IteratorSearchResponse response = null;
-		try {
-			response = indexer.searchIterator(request);
+	/**
+	 * Reads the hits, which are loaded lazily, the most relevant first, until
+	 * the consumer returns <code>false</code>. The search is cancelled by the
+	 * cancel checker before any hit is read.
+	 */
+	private void iterateHits(Dependency artifactToSearch, final IteratorSearchRequest request, CancelChecker cancelChecker,
+			Predicate<ArtifactInfo> consumer) {
+		cancelChecker.checkCanceled();
+		try (IteratorSearchResponse response = indexer.searchIterator(request)) {
+			for (ArtifactInfo hit : response.getResults()) {
+				cancelChecker.checkCanceled();
+				if (!consumer.test(hit)) {
+					break;
+				}
+			}
 		} catch (IOException e) {
 			System.out.println("Index search failed for " + String.join(":", artifactToSearch.getGroupId(),
 					artifactToSearch.getArtifactId(), artifactToSearch.getVersion()));
 			e.printStackTrace();
 		}
-		List<ArtifactInfo> artifactInfos = new ArrayList<>();
-		if (response != null) {
-			response.getResults().forEach(artifactInfos::add);
+	}
+
+	private VersionTable getVersionTable() {
+		if (versionTable.size() > MAX_VERSIONS) {
+			versionTable.clear();
 		}
-		return artifactInfos;
+		return versionTable;
+	}
+
+	/**
+	 * Reads the hits into one result per <code>groupId:artifactId</code>, see
+	 * {@link ArtifactCollector}, and passes them to the consumer once all the
+	 * hits are read.
+	 */
+	private void collapseByArtifact(Dependency artifactToSearch, final IteratorSearchRequest request, int maxArtifacts,
+			CancelChecker cancelChecker, Consumer<ArtifactInfo> consumer) {
+		ArtifactCollector collector = new ArtifactCollector(maxArtifacts, MAX_SEARCH_HITS, getVersionTable());
+		iterateHits(artifactToSearch, request, cancelChecker, collector);
+		collector.getArtifacts().forEach(consumer);
 	}
 
 }
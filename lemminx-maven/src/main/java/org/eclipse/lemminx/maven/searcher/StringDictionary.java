@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding of strings: each distinct string is kept once and
+ * referenced by an <code>int</code>, so that names repeated across thousands of
+ * artifacts (such as <code>org.apache.maven.plugins</code>) don't cost more
+ * than one instance.
+ */
+public final class StringDictionary {
+
+	private final Map<String, Integer> ids = new HashMap<>();
+	private final List<String> values = new ArrayList<>();
+
+	/**
+	 * @return the id of the string, added to the dictionary if it's not known
+	 */
+	public synchronized int getId(String value) {
+		Integer id = ids.get(value);
+		if (id == null) {
+			id = values.size();
+			ids.put(value, id);
+			values.add(value);
+		}
+		return id;
+	}
+
+	/**
+	 * @return the id of the string, or -1 if it's not in the dictionary
+	 */
+	public synchronized int findId(String value) {
+		Integer id = ids.get(value);
+		return id != null ? id : -1;
+	}
+
+	public synchronized String get(int id) {
+		return values.get(id);
+	}
+
+	/**
+	 * @return the instance of the dictionary equal to the given string
+	 */
+	public String intern(String value) {
+		return get(getId(value));
+	}
+
+	public synchronized int size() {
+		return values.size();
+	}
+
+	public synchronized void clear() {
+		ids.clear();
+		values.clear();
+	}
+}
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.searcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+
+/**
+ * The distinct versions seen in repositories, each parsed once and referenced
+ * by an <code>int</code>. Artifacts installed in the same versions
+ * (<code>1.0</code>, <code>2.0.0</code>...) share the same string and parsed
+ * version.
+ * <p>
+ * Every version also gets a sort key, its rank among all the known versions,
+ * so that sorting versions compares <code>int</code>s instead of parsed
+ * versions. Versions added since the last ranking are sorted and merged into
+ * the ranking on the next request for a sort key, so versions to sort are best
+ * registered all at once with {@link #comparator(Collection)}.
+ */
+public final class VersionTable {
+
+	private static final VersionTable SHARED = new VersionTable();
+
+	private final StringDictionary versions = new StringDictionary();
+	private final List<ArtifactVersion> parsedVersions = new ArrayList<>();
+	/**
+	 * Ids of the ranked versions, from lowest to highest
+	 */
+	private int[] rankedIds = new int[0];
+	/**
+	 * Rank by version id, equal versions (such as <code>1</code> and
+	 * <code>1.0</code>) have the same rank
+	 */
+	private int[] ranks = new int[0];
+
+	/**
+	 * @return the table of the versions installed in local repositories, never
+	 *         cleared as local indexes reference its ids
+	 */
+	public static VersionTable getShared() {
+		return SHARED;
+	}
+
+	public synchronized int getId(String version) {
+		int id = versions.getId(version);
+		if (id == parsedVersions.size()) {
+			parsedVersions.add(new DefaultArtifactVersion(version));
+		}
+		return id;
+	}
+
+	/**
+	 * @return the id of the version, or -1 if it's not known
+	 */
+	public int findId(String version) {
+		return versions.findId(version);
+	}
+
+	public synchronized ArtifactVersion get(int id) {
+		return parsedVersions.get(id);
+	}
+
+	/**
+	 * @return the canonical parsed version
+	 */
+	public synchronized ArtifactVersion get(String version) {
+		return parsedVersions.get(getId(version));
+	}
+
+	/**
+	 * @return a key ordering versions like {@link ArtifactVersion#compareTo}
+	 */
+	public synchronized int getSortKey(int id) {
+		if (id >= ranks.length) {
+			rank();
+		}
+		return ranks[id];
+	}
+
+	/**
+	 * @return the sort key of the version, -1 for <code>null</code>
+	 */
+	public synchronized int getSortKey(String version) {
+		return version != null ? getSortKey(getId(version)) : -1;
+	}
+
+	/**
+	 * Registers the versions first, so that they're ranked once rather than once
+	 * per version first seen during the sort.
+	 * 
+	 * @return a comparator of the given versions on their current sort keys,
+	 *         <code>null</code> first, unaffected by versions added later
+	 */
+	public synchronized Comparator<String> comparator(Collection<String> values) {
+		values.stream().filter(Objects::nonNull).forEach(this::getId);
+		Map<String, Integer> sortKeys = new HashMap<>();
+		values.stream().filter(Objects::nonNull).forEach(version -> sortKeys.put(version, getSortKey(version)));
+		return Comparator.comparingInt(version -> version != null ? sortKeys.get(version) : -1);
+	}
+
+	public synchronized int size() {
+		return parsedVersions.size();
+	}
+
+	/**
+	 * Forgets all the versions, invalidating their ids. Only for tables whose
+	 * users look versions up by string.
+	 */
+	public synchronized void clear() {
+		versions.clear();
+		parsedVersions.clear();
+		rankedIds = new int[0];
+		ranks = new int[0];
+	}
+
+	/**
+	 * Merges the versions added since the last ranking into the ranking
+	 */
+	private void rank() {
+		int rankedCount = ranks.length;
+		int[] added = IntStream.range(rankedCount, parsedVersions.size()).boxed()
+				.sorted((id1, id2) -> parsedVersions.get(id1).compareTo(parsedVersions.get(id2)))
+				.mapToInt(Integer::intValue)
+				.toArray();
+		int[] merged = new int[rankedIds.length + added.length];
+		int i = 0;
+		int j = 0;
+		for (int k = 0; k < merged.length; k++) {
+			if (j >= added.length
+					|| (i < rankedIds.length && parsedVersions.get(rankedIds[i]).compareTo(parsedVersions.get(added[j])) <= 0)) {
+				merged[k] = rankedIds[i++];
+			} else {
+				merged[k] = added[j++];
+			}
+		}
+		int[] newRanks = Arrays.copyOf(ranks, parsedVersions.size());
+		int rank = 0;
+		for (int k = 0; k < merged.length; k++) {
+			if (k > 0 && parsedVersions.get(merged[k - 1]).compareTo(parsedVersions.get(merged[k])) != 0) {
+				rank++;
+			}
+			newRanks[merged[k]] = rank;
+		}
+		rankedIds = merged;
+		ranks = newRanks;
+	}
+}
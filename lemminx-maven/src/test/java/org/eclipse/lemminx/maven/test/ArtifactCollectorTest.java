@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.maven.index.ArtifactInfo;
+import org.eclipse.lemminx.maven.searcher.ArtifactCollector;
+import org.eclipse.lemminx.maven.searcher.VersionTable;
+import org.junit.Test;
+
+public class ArtifactCollectorTest {
+
+	private static ArtifactInfo hit(String artifactId, String version, String description) {
+		ArtifactInfo hit = new ArtifactInfo("test", "org.test", artifactId, version, null, "jar");
+		hit.setDescription(description);
+		return hit;
+	}
+
+	private static List<String> collect(ArtifactCollector collector, ArtifactInfo... hits) {
+		for (ArtifactInfo hit : hits) {
+			if (!collector.test(hit)) {
+				break;
+			}
+		}
+		return collector.getArtifacts().stream()
+				.map(artifact -> artifact.getArtifactId() + ':' + artifact.getVersion() + ':' + artifact.getDescription())
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void testNewestVersionOfOutOfOrderHits() {
+		ArtifactCollector collector = new ArtifactCollector(2, 100, new VersionTable());
+		List<String> artifacts = collect(collector, hit("a", "1.9", "first a"), hit("b", "1.0", null),
+				// skipped, two artifacts were found already
+				hit("c", "1.0", "c"),
+				hit("a", "1.10", null), hit("b", "2.0", "b"), hit("a", "1.2", "other a"), hit("c", "2.0", "c"));
+		assertEquals(Arrays.asList("a:1.10:first a", "b:2.0:b"), artifacts);
+	}
+
+	@Test
+	public void testReadingStopsAtMaxHits() {
+		ArtifactCollector collector = new ArtifactCollector(10, 3, new VersionTable());
+		assertTrue(collector.test(hit("a", "1.0", null)));
+		assertTrue(collector.test(hit("b", "1.0", null)));
+		assertFalse(collector.test(hit("a", "2.0", null)));
+		assertEquals(Arrays.asList("a:2.0:null", "b:1.0:null"), collect(collector));
+	}
+}
@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.stream.Collectors;
+
+import org.apache.maven.index.artifact.Gav;
+import org.eclipse.lemminx.maven.searcher.ArtifactPrefixIndex;
+import org.junit.Test;
+
+public class ArtifactPrefixIndexTest {
+
+	private final ArtifactPrefixIndex index = new ArtifactPrefixIndex(Arrays.asList( //
+			new Gav("org.apache.maven", "maven-core", "3.6.3"), //
+			new Gav("org.apache.maven.plugins", "maven-compiler-plugin", "3.8.1"), //
+			new Gav("com.google.guava", "guava", "29.0-jre")), //
+			gav -> gav.getArtifactId().endsWith("-plugin"));
+
+	@Test
+	public void testGroupIdSegments() {
+		assertEquals(new HashSet<>(Arrays.asList("org.apache.maven", "org.apache.maven.plugins")),
+				new HashSet<>(index.getGroupIds("apa")));
+		assertEquals(Collections.singleton("org.apache.maven.plugins"), new HashSet<>(index.getGroupIds("org.apache.maven.")));
+		assertEquals(Collections.singleton("com.google.guava"), new HashSet<>(index.getGroupIds("Gua")));
+		assertEquals(3, index.getGroupIds("").size());
+		assertEquals(0, index.getGroupIds("unknown").size());
+	}
+
+	@Test
+	public void testArtifactIdSegmentsAndPlugins() {
+		assertEquals(Collections.singleton("maven-compiler-plugin"),
+				index.getArtifacts("compiler").stream().map(Gav::getArtifactId).collect(Collectors.toSet()));
+		assertEquals(2, index.getArtifacts("maven").size());
+		assertEquals(1, index.getPluginArtifacts("maven").size());
+		assertEquals(Collections.singleton("org.apache.maven.plugins"), new HashSet<>(index.getPluginGroupIds(null)));
+	}
+}
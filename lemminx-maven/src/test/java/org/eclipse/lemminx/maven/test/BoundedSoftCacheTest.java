@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.lemminx.maven.BoundedSoftCache;
+import org.junit.Test;
+
+public class BoundedSoftCacheTest {
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+		BoundedSoftCache<String, String> cache = new BoundedSoftCache<>(2);
+		cache.put("a", "A");
+		cache.put("b", "B");
+		cache.get("a");
+		cache.put("c", "C");
+		assertEquals("A", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals("C", cache.get("c"));
+		assertEquals(1, cache.getStatistics().getEvictionCount());
+		assertEquals(3, cache.getStatistics().getHitCount());
+		assertEquals(1, cache.getStatistics().getMissCount());
+	}
+
+	@Test
+	public void testPinnedEntriesAreKept() {
+		BoundedSoftCache<String, String> cache = new BoundedSoftCache<>(1);
+		cache.pin("a");
+		cache.put("a", "A");
+		cache.put("b", "B");
+		cache.put("c", "C");
+		assertEquals("A", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals(2, cache.getStatistics().getSize());
+	}
+
+	@Test
+	public void testUnpinnedEntriesAreEvicted() {
+		BoundedSoftCache<String, String> cache = new BoundedSoftCache<>(1);
+		cache.pin("a");
+		cache.put("a", "A");
+		cache.put("b", "B");
+		cache.unpin("a");
+		assertEquals(1, cache.getStatistics().getSize());
+		assertEquals("A", cache.get("a"));
+		cache.put("c", "C");
+		assertNull(cache.get("a"));
+	}
+}
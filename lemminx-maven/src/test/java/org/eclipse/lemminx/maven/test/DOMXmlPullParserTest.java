@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.InputSource;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.ModelParseException;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.dom.DOMParser;
+import org.eclipse.lemminx.maven.DOMModelProcessor;
+import org.junit.Test;
+
+public class DOMXmlPullParserTest {
+
+	@Test
+	public void testModelFromDOMMatchesModelFromText() throws Exception {
+		for (String resource : new String[] { "/pom-with-properties.xml", "/pom-with-dependency.xml",
+				"/pom-plugin-configuration-hover.xml", "/hierarchy/child/pom.xml" }) {
+			URI uri = getClass().getResource(resource).toURI();
+			String content = FileUtils.readFileToString(new File(uri), "UTF-8");
+			DOMDocument document = DOMParser.getInstance().parse(content, uri.toString(), null);
+			Model fromText = new MavenXpp3Reader().read(new StringReader(content), true);
+			Model fromDOM = DOMModelProcessor.read(document, true, null);
+			assertEquals(resource, toString(fromText), toString(fromDOM));
+		}
+	}
+
+	@Test
+	public void testLocationsAreTracked() throws Exception {
+		String content = "<project>\n  <modelVersion>4.0.0</modelVersion>\n  <artifactId>a &amp; b</artifactId>\n</project>";
+		DOMDocument document = DOMParser.getInstance().parse(content, "file:///pom.xml", null);
+		Model model = DOMModelProcessor.read(document, true, new InputSource());
+		assertEquals("a & b", model.getArtifactId());
+		assertEquals(3, model.getLocation("artifactId").getLineNumber());
+	}
+
+	@Test
+	public void testUnclosedElementIsReported() throws Exception {
+		String content = "<project>\n  <modelVersion>4.0.0</modelVersion>\n  <artifactId>\n</project>";
+		DOMDocument document = DOMParser.getInstance().parse(content, "file:///pom.xml", null);
+		try {
+			DOMModelProcessor.read(document, true, null);
+			fail("parse error expected");
+		} catch (ModelParseException e) {
+			assertTrue(e.getLineNumber() > 0);
+		}
+	}
+
+	private static String toString(Model model) throws Exception {
+		StringWriter writer = new StringWriter();
+		new MavenXpp3Writer().write(writer, model);
+		return writer.toString();
+	}
+}
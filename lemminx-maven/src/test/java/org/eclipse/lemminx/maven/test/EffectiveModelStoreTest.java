@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Optional;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.lemminx.maven.EffectiveModelStore;
+import org.eclipse.lemminx.maven.Hashes;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EffectiveModelStoreTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static final String CONTENT = "<project><artifactId>a</artifactId></project>";
+
+	private MavenProject project(File pomFile) {
+		Model model = new Model();
+		model.setGroupId("org.test");
+		model.setArtifactId("a");
+		model.setVersion("1");
+		MavenProject project = new MavenProject(model);
+		project.setFile(pomFile);
+		return project;
+	}
+
+	@Test
+	public void testStoreLoad() throws Exception {
+		EffectiveModelStore store = new EffectiveModelStore(temporaryFolder.newFolder("store"));
+		File pomFile = temporaryFolder.newFile("pom.xml");
+		String hash = Hashes.sha1(CONTENT);
+		store.store(pomFile, hash, project(pomFile), Collections.emptyList());
+
+		Optional<Model> model = store.load(pomFile, hash);
+		assertTrue(model.isPresent());
+		assertEquals("a", model.get().getArtifactId());
+		assertFalse(store.load(pomFile, Hashes.sha1("<project/>")).isPresent());
+	}
+
+	@Test
+	public void testModifiedBomInvalidatesModel() throws Exception {
+		EffectiveModelStore store = new EffectiveModelStore(temporaryFolder.newFolder("store"));
+		File pomFile = temporaryFolder.newFile("pom.xml");
+		File bomFile = temporaryFolder.newFile("bom.pom");
+		String hash = Hashes.sha1(CONTENT);
+		store.store(pomFile, hash, project(pomFile), Collections.singletonList(bomFile));
+		assertTrue(store.load(pomFile, hash).isPresent());
+
+		Files.write(bomFile.toPath(), "<project/>".getBytes(StandardCharsets.UTF_8));
+		assertFalse(store.load(pomFile, hash).isPresent());
+	}
+
+	@Test
+	public void testRemoveVanishedEntries() throws Exception {
+		File directory = temporaryFolder.newFolder("store");
+		EffectiveModelStore store = new EffectiveModelStore(directory);
+		File pomFile = temporaryFolder.newFile("pom.xml");
+		File otherPomFile = temporaryFolder.newFile("other.xml");
+		String hash = Hashes.sha1(CONTENT);
+		store.store(pomFile, hash, project(pomFile), Collections.emptyList());
+		store.store(otherPomFile, hash, project(otherPomFile), Collections.emptyList());
+		assertEquals(4, directory.list().length);
+
+		assertTrue(otherPomFile.delete());
+		store.removeVanishedEntries();
+		assertEquals(2, directory.list().length);
+		assertTrue(store.load(pomFile, hash).isPresent());
+	}
+}
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.maven.index.MAVEN;
+import org.apache.maven.index.SearchType;
+import org.eclipse.lemminx.maven.searcher.GroupIdDictionary;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GroupIdDictionaryTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final GroupIdDictionary dictionary = new GroupIdDictionary(42,
+			Arrays.asList("org.apache.maven", "com.google.guava", "org.apache.commons", "org.eclipse.lemminx"),
+			Arrays.asList("org.codehaus.mojo", "org.apache.maven.plugins", "org.apache.maven"));
+
+	@Test
+	public void testPrefixLookup() {
+		assertEquals(Arrays.asList("org.apache.commons", "org.apache.maven"), dictionary.getGroupIds("org.apache", false));
+		assertEquals(Arrays.asList("org.apache.maven", "org.apache.maven.plugins"), dictionary.getGroupIds("org.apache.m", true));
+		assertEquals(Collections.singletonList("org.codehaus.mojo"), dictionary.getGroupIds("org.c", true));
+		assertEquals(Collections.emptyList(), dictionary.getGroupIds("net.", false));
+		assertEquals(4, dictionary.getGroupIds(null, false).size());
+	}
+
+	@Test
+	public void testWriteRead() throws Exception {
+		File file = new File(temporaryFolder.getRoot(), "groupIds");
+		assertNull(GroupIdDictionary.read(file));
+		dictionary.write(file);
+		GroupIdDictionary read = GroupIdDictionary.read(file);
+		assertEquals(42, read.getTimestamp());
+		assertEquals(dictionary.getGroupIds(null, false), read.getGroupIds(null, false));
+		assertEquals(dictionary.getGroupIds(null, true), read.getGroupIds(null, true));
+	}
+
+	@Test
+	public void testBuildFromIndex() throws Exception {
+		TestIndex index = new TestIndex(temporaryFolder.newFolder("index"));
+		try {
+			index.add("jar", "org.test:a:1.0", "org.test:a:2.0", "com.test:b:1.0", "org.test.sub:c:1.0");
+			index.add("maven-plugin", "org.test:a-maven-plugin:1.0", "org.test.plugins:b-maven-plugin:1.0");
+			index.add("pom", "org.test.parent:parent:1.0");
+			GroupIdDictionary built = GroupIdDictionary.build(index.getContext(),
+					index.getIndexer().constructQuery(MAVEN.PACKAGING, "jar", SearchType.EXACT),
+					index.getIndexer().constructQuery(MAVEN.PACKAGING, "maven-plugin", SearchType.EXACT));
+			assertEquals(Arrays.asList("com.test", "org.test", "org.test.sub"), built.getGroupIds(null, false));
+			assertEquals(Arrays.asList("org.test", "org.test.plugins"), built.getGroupIds(null, true));
+			assertEquals(Arrays.asList("org.test", "org.test.sub"), built.getGroupIds("org.test", false));
+		} finally {
+			index.close();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.lucene.search.Query;
+import org.apache.maven.index.ArtifactInfo;
+import org.eclipse.lemminx.maven.searcher.IndexQueries;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IndexQueriesTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private TestIndex index;
+	private IndexQueries queries;
+
+	@Before
+	public void setUp() throws Exception {
+		index = new TestIndex(temporaryFolder.getRoot());
+		queries = new IndexQueries(index.getIndexer());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		index.close();
+	}
+
+	private List<String> search(Query query, Function<ArtifactInfo, String> field) throws Exception {
+		return index.search(query).stream().map(field).collect(Collectors.toList());
+	}
+
+	@Test
+	public void testExactThenPrefixThenFuzzyArtifactIds() throws Exception {
+		// added least relevant first, so that the order isn't the index order
+		index.add("jar", "org.test:unrelated:1.0", "org.test:commons-iq:1.0", "org.test:commons-io-extra:1.0",
+				"org.test:commons-io:1.0");
+		assertEquals(Arrays.asList("commons-io", "commons-io-extra", "commons-iq"),
+				search(queries.newArtifactIdsQuery(null, "commons-io", "jar"), ArtifactInfo::getArtifactId));
+	}
+
+	@Test
+	public void testExactThenPrefixGroupIds() throws Exception {
+		index.add("jar", "org.tests:a:1.0", "org.test:a:1.0");
+		assertEquals(Arrays.asList("org.test", "org.tests"),
+				search(queries.newGroupIdsQuery("org.test", "jar"), ArtifactInfo::getGroupId));
+		assertEquals(Collections.emptyList(), search(queries.newGroupIdsQuery("org.test", "maven-plugin"),
+				ArtifactInfo::getGroupId));
+	}
+
+	@Test
+	public void testVersionsMustMatchArtifactId() throws Exception {
+		index.add("jar", "org.test:commons-io:1.0", "org.test:commons-io-extra:1.0", "org.test:commons-iq:1.0",
+				"org.test:commons-io:2.0", "org.other:commons-io:3.0");
+		assertEquals(Arrays.asList("1.0", "2.0"), search(queries.newVersionsQuery("org.test", "commons-io", "jar"),
+				ArtifactInfo::getVersion).stream().sorted().collect(Collectors.toList()));
+		assertEquals(Arrays.asList("1.0", "2.0", "3.0"), search(queries.newVersionsQuery(null, "commons-io", "jar"),
+				ArtifactInfo::getVersion).stream().sorted().collect(Collectors.toList()));
+		assertEquals(Collections.emptyList(), search(queries.newVersionsQuery(null, "commons", "jar"),
+				ArtifactInfo::getVersion));
+	}
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.index.artifact.Gav;
+import org.eclipse.lemminx.maven.searcher.LocalRepositoryIndex;
+import org.eclipse.lemminx.maven.searcher.PomPackagingReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LocalRepositoryIndexTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static Set<String> toStrings(Collection<Gav> gavs) {
+		return gavs.stream().map(gav -> gav.getGroupId() + ':' + gav.getArtifactId() + ':' + gav.getVersion())
+				.collect(Collectors.toSet());
+	}
+
+	private static void install(File repository, String path) {
+		File directory = new File(repository, path);
+		assertTrue(directory.mkdirs());
+		touchAncestors(directory, repository);
+	}
+
+	/**
+	 * Makes sure changes are visible even with a coarse timestamp resolution
+	 */
+	private static void touchAncestors(File directory, File repository) {
+		for (File parent = directory.getParentFile(); !parent.equals(repository); parent = parent.getParentFile()) {
+			parent.setLastModified(parent.lastModified() + 2000);
+		}
+	}
+
+	@Test
+	public void testLastVersions() throws Exception {
+		File repository = temporaryFolder.newFolder("repository");
+		install(repository, "org/example/lib/1.0");
+		install(repository, "org/example/lib/1.1");
+		install(repository, "org/example/lib/2.0-SNAPSHOT");
+		install(repository, "org/example/plugins/tool/3.0");
+		LocalRepositoryIndex index = new LocalRepositoryIndex(repository, null);
+		index.refresh();
+		assertEquals(toStrings(index.getArtifactsLastVersion()).toString(),
+				2, index.getArtifactsLastVersion().size());
+		assertTrue(toStrings(index.getArtifactsLastVersion()).contains("org.example:lib:1.1"));
+		assertTrue(toStrings(index.getArtifactsLastVersion()).contains("org.example.plugins:tool:3.0"));
+	}
+
+	@Test
+	public void testStoredIndexIsUpdatedIncrementally() throws Exception {
+		File repository = temporaryFolder.newFolder("repository");
+		File indexFile = new File(temporaryFolder.getRoot(), "local.index");
+		install(repository, "org/example/lib/1.0");
+		install(repository, "org/other/tool/1.0");
+		new LocalRepositoryIndex(repository, indexFile).refresh();
+		assertTrue(indexFile.isFile());
+
+		install(repository, "org/example/lib/1.2");
+		install(repository, "org/example/added/0.1");
+		File removed = new File(repository, "org/other");
+		new File(removed, "tool/1.0").delete();
+		new File(removed, "tool").delete();
+		removed.delete();
+		touchAncestors(removed, repository);
+
+		LocalRepositoryIndex index = new LocalRepositoryIndex(repository, indexFile);
+		index.refresh();
+		assertEquals(new HashSet<>(Arrays.asList("org.example:added:0.1", "org.example:lib:1.2")),
+				toStrings(index.getArtifactsLastVersion()));
+		assertEquals(2, index.getVersions("org.example", "lib").size());
+	}
+
+	@Test
+	public void testRemovedArtifactIsDroppedWithItsGroup() throws Exception {
+		File repository = temporaryFolder.newFolder("repository");
+		install(repository, "org/example/lib/1.0");
+		install(repository, "org/example/tool/1.0");
+		LocalRepositoryIndex index = new LocalRepositoryIndex(repository, null);
+		index.refresh();
+		File removed = new File(repository, "org/example/tool");
+		assertTrue(new File(removed, "1.0").delete());
+		assertTrue(removed.delete());
+		// later than the stamp of the install, even within the same millisecond
+		File group = removed.getParentFile();
+		group.setLastModified(group.lastModified() + 4000);
+
+		index.refresh();
+		assertEquals(Collections.singleton("org.example:lib:1.0"), toStrings(index.getArtifactsLastVersion()));
+		assertFalse(index.isInstalled("org.example", "tool", "1.0"));
+	}
+
+	@Test
+	public void testAllVersionsAreKept() throws Exception {
+		File repository = temporaryFolder.newFolder("repository");
+		install(repository, "org/example/lib/1.10");
+		install(repository, "org/example/lib/1.2");
+		install(repository, "org/example/lib/2.0-SNAPSHOT");
+		install(repository, "org/example/other/1.2.0");
+		LocalRepositoryIndex index = new LocalRepositoryIndex(repository, null);
+		index.refresh();
+		assertEquals(Arrays.asList("1.2", "1.10", "2.0-SNAPSHOT"), index.getVersions("org.example", "lib").stream()
+				.map(ArtifactVersion::toString).collect(Collectors.toList()));
+		assertEquals(3, index.getVersions(null, "lib").size());
+		assertTrue(index.isInstalled("org.example", "lib", "1.2"));
+		assertFalse(index.isInstalled("org.example", "lib", "1.3"));
+		// equal to 1.2, but not the installed one
+		assertFalse(index.isInstalled("org.example", "lib", "1.2.0"));
+		assertTrue(index.isInstalled("org.example", "other", "1.2.0"));
+	}
+
+	@Test
+	public void testPackagingIsReadFromPomHeader() throws Exception {
+		File pluginPom = temporaryFolder.newFile("plugin.pom");
+		Files.write(pluginPom.toPath(), ("<project><modelVersion>4.0.0</modelVersion><artifactId>tycho-compiler</artifactId>"
+				+ "<packaging>maven-plugin</packaging><dependencies/></project>").getBytes(StandardCharsets.UTF_8));
+		assertEquals("maven-plugin", PomPackagingReader.readPackaging(pluginPom));
+		File libraryPom = temporaryFolder.newFile("library.pom");
+		Files.write(libraryPom.toPath(), ("<project><artifactId>lib-plugin</artifactId><dependencies/>"
+				+ "<build><packaging>not-read</packaging></build></project>").getBytes(StandardCharsets.UTF_8));
+		assertEquals("jar", PomPackagingReader.readPackaging(libraryPom));
+	}
+
+	private static void installPom(File repository, String groupPath, String artifactId, String version,
+			String packaging) throws Exception {
+		String path = groupPath + '/' + artifactId + '/' + version;
+		install(repository, path);
+		File pom = new File(repository, path + '/' + artifactId + '-' + version + ".pom");
+		Files.write(pom.toPath(), ("<project><modelVersion>4.0.0</modelVersion><artifactId>" + artifactId
+				+ "</artifactId><packaging>" + packaging + "</packaging></project>").getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testPluginsAreFoundByPackaging() throws Exception {
+		File repository = temporaryFolder.newFolder("repository");
+		installPom(repository, "org/eclipse/tycho", "tycho-compiler", "1.0", "maven-plugin");
+		installPom(repository, "org/example", "lib-plugin", "1.0", "jar");
+		LocalRepositoryIndex index = new LocalRepositoryIndex(repository, null);
+		try {
+			index.refresh();
+			// packagings are read in background, the artifactIds are used meanwhile
+			long timeout = System.currentTimeMillis() + 10000;
+			Set<String> plugins = toStrings(index.getPrefixIndex().getPluginArtifacts(null));
+			while (!plugins.contains("org.eclipse.tycho:tycho-compiler:1.0") && System.currentTimeMillis() < timeout) {
+				Thread.sleep(50);
+				plugins = toStrings(index.getPrefixIndex().getPluginArtifacts(null));
+			}
+			assertEquals(Collections.singleton("org.eclipse.tycho:tycho-compiler:1.0"), plugins);
+		} finally {
+			index.stop();
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.eclipse.lemminx.maven.searcher.LocalRepositoryLocator;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LocalRepositoryLocatorTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static void write(File file, String content) throws Exception {
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String settings(String localRepository) {
+		return "<settings><localRepository>" + localRepository + "</localRepository></settings>";
+	}
+
+	@Test
+	public void testSettingsLocalRepository() throws Exception {
+		Assume.assumeTrue(System.getProperty("maven.repo.local") == null);
+		File userSettings = temporaryFolder.newFile("settings.xml");
+		File globalSettings = temporaryFolder.newFile("global-settings.xml");
+		write(userSettings, settings("${user.home}/fast-repository"));
+		write(globalSettings, settings("/global-repository"));
+		assertEquals(new File(System.getProperty("user.home"), "fast-repository").getAbsoluteFile(),
+				new LocalRepositoryLocator(userSettings, globalSettings).getDefaultLocalRepository());
+		write(userSettings, "<settings/>");
+		assertEquals(new File("/global-repository").getAbsoluteFile(),
+				new LocalRepositoryLocator(userSettings, globalSettings).getDefaultLocalRepository());
+	}
+
+	@Test
+	public void testProjectOverride() throws Exception {
+		Assume.assumeTrue(System.getProperty("maven.repo.local") == null);
+		File root = temporaryFolder.newFolder("project");
+		File modulePom = new File(root, "module/pom.xml");
+		write(modulePom, "<project/>");
+		File userSettings = new File(temporaryFolder.getRoot(), "missing-settings.xml");
+		LocalRepositoryLocator locator = new LocalRepositoryLocator(userSettings, null, 0);
+		File defaultRepository = locator.getDefaultLocalRepository();
+		assertEquals(defaultRepository, locator.getLocalRepository(modulePom));
+		File config = new File(root, ".mvn/maven.config");
+		write(config, "-B -Dmaven.repo.local=repository");
+		assertEquals(new File(root, "repository").getAbsoluteFile(), locator.getLocalRepository(modulePom));
+		assertEquals(new File(root, "repository").getAbsoluteFile(), locator.getLocalRepository(modulePom.toURI().toString()));
+		File projectSettings = new File(root, ".mvn/settings.xml");
+		write(projectSettings, settings("/project-repository"));
+		write(config, "-s .mvn/settings.xml");
+		config.setLastModified(config.lastModified() + 2000);
+		assertEquals(new File("/project-repository").getAbsoluteFile(), locator.getLocalRepository(modulePom));
+		assertEquals(defaultRepository, locator.getLocalRepository("untitled:pom.xml"));
+	}
+
+	@Test
+	public void testProjectConfigurationIsCheckedAtInterval() throws Exception {
+		Assume.assumeTrue(System.getProperty("maven.repo.local") == null);
+		File root = temporaryFolder.newFolder("project");
+		File modulePom = new File(root, "module/pom.xml");
+		write(modulePom, "<project/>");
+		File config = new File(root, ".mvn/maven.config");
+		write(config, "-Dmaven.repo.local=repository");
+		File userSettings = new File(temporaryFolder.getRoot(), "missing-settings.xml");
+		LocalRepositoryLocator locator = new LocalRepositoryLocator(userSettings, null, 60000);
+		File projectRepository = new File(root, "repository").getAbsoluteFile();
+		assertEquals(projectRepository, locator.getLocalRepository(modulePom));
+		// neither the root nor the configuration are looked up again
+		write(config, "-Dmaven.repo.local=other-repository");
+		config.setLastModified(config.lastModified() + 2000);
+		assertEquals(projectRepository, locator.getLocalRepository(modulePom));
+		assertTrue(config.delete());
+		assertTrue(config.getParentFile().delete());
+		assertEquals(projectRepository, locator.getLocalRepository(modulePom));
+	}
+}
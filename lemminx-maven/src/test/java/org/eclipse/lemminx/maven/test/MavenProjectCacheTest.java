@@ -8,21 +8,40 @@
  *******************************************************************************/
 package org.eclipse.lemminx.maven.test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.net.URI;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.building.ModelBuilder;
 import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.PlexusContainer;
 import org.eclipse.lemminx.commons.TextDocument;
 import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.dom.DOMParser;
+import org.eclipse.lemminx.maven.CachingModelBuilder;
 import org.eclipse.lemminx.maven.MavenPlugin;
 import org.eclipse.lemminx.maven.MavenProjectCache;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 public class MavenProjectCacheTest {
 
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
 	@Test
 	public void testSimpleProjectIsParsed() throws Exception {
 		URI uri = getClass().getResource("/pom-with-properties.xml").toURI();
@@ -32,4 +51,80 @@ public class MavenProjectCacheTest {
 		MavenProject project = cache.getLastSuccessfulMavenProject(doc);
 		assertNotNull(project);
 	}
+
+	@Test
+	public void testConcurrentRequestsShareProject() throws Exception {
+		URI uri = getClass().getResource("/pom-with-properties.xml").toURI();
+		String content = FileUtils.readFileToString(new File(uri), "UTF-8");
+		DOMDocument doc = new DOMDocument(new TextDocument(content, uri.toString()), null);
+		MavenProjectCache cache = new MavenProjectCache(MavenPlugin.newPlexusContainer());
+		List<CompletableFuture<MavenProject>> requests = IntStream.range(0, 8)
+				.mapToObj(i -> CompletableFuture.supplyAsync(() -> cache.getLastSuccessfulMavenProject(doc)))
+				.collect(Collectors.toList());
+		// MavenProject equality is based on GAV, compare instances instead
+		Set<MavenProject> projects = Collections.newSetFromMap(new IdentityHashMap<>());
+		requests.stream().map(CompletableFuture::join).forEach(projects::add);
+		assertEquals(1, projects.size());
+		assertNotNull(projects.iterator().next());
+	}
+
+	private static DOMDocument document(File file, int version) throws Exception {
+		DOMDocument document = DOMParser.getInstance().parse(FileUtils.readFileToString(file, "UTF-8"),
+				file.toURI().toString(), null);
+		document.getTextDocument().setVersion(version);
+		return document;
+	}
+
+	private static String parentPom(String value) {
+		return "<project><modelVersion>4.0.0</modelVersion>" //
+				+ "<groupId>org.test</groupId><artifactId>shared-parent</artifactId><version>1</version>" //
+				+ "<packaging>pom</packaging><properties><value>" + value + "</value></properties></project>";
+	}
+
+	@Test
+	public void testParentEditInvalidatesChildren() throws Exception {
+		File parentPom = temporaryFolder.newFile("pom.xml");
+		FileUtils.writeStringToFile(parentPom, parentPom("a"), "UTF-8");
+		File childPom = new File(temporaryFolder.newFolder("child"), "pom.xml");
+		FileUtils.writeStringToFile(childPom, "<project><modelVersion>4.0.0</modelVersion>" //
+				+ "<parent><groupId>org.test</groupId><artifactId>shared-parent</artifactId><version>1</version></parent>" //
+				+ "<artifactId>child</artifactId></project>", "UTF-8");
+		PlexusContainer container = MavenPlugin.newPlexusContainer();
+		MavenProjectCache cache = new MavenProjectCache(container);
+		DOMDocument child = document(childPom, 1);
+		cache.getProblemsFor(child, null);
+		assertEquals("a", cache.getLastSuccessfulMavenProject(child).getProperties().getProperty("value"));
+		// the project builder built the child through the caching model builder
+		assertTrue(container.lookup(ModelBuilder.class) instanceof CachingModelBuilder);
+		assertNotNull(cache.getSharedModelCache().get("org.test", "shared-parent", "1", "raw"));
+
+		FileUtils.writeStringToFile(parentPom, parentPom("b"), "UTF-8");
+		parentPom.setLastModified(parentPom.lastModified() + 2000);
+		cache.getProblemsFor(document(parentPom, 1), null);
+		assertNull(cache.getSharedModelCache().get("org.test", "shared-parent", "1", "raw"));
+		cache.getProblemsFor(child, null);
+		assertEquals("b", cache.getLastSuccessfulMavenProject(child).getProperties().getProperty("value"));
+		cache.stop();
+	}
+
+	@Test
+	public void testFirstSnapshotOfParentKeepsChildren() throws Exception {
+		File parentPom = temporaryFolder.newFile("pom.xml");
+		FileUtils.writeStringToFile(parentPom, parentPom("a"), "UTF-8");
+		File childPom = new File(temporaryFolder.newFolder("child"), "pom.xml");
+		FileUtils.writeStringToFile(childPom, "<project><modelVersion>4.0.0</modelVersion>" //
+				+ "<parent><groupId>org.test</groupId><artifactId>shared-parent</artifactId><version>1</version></parent>" //
+				+ "<artifactId>child</artifactId></project>", "UTF-8");
+		MavenProjectCache cache = new MavenProjectCache(MavenPlugin.newPlexusContainer());
+		DOMDocument child = document(childPom, 1);
+		cache.getProblemsFor(child, null);
+		long buildCount = cache.getBuildCount();
+
+		// unchanged on disk, as when completion loads the parent
+		assertEquals("a", cache.getSnapshotProject(parentPom).get().getProperties().getProperty("value"));
+		assertNotNull(cache.getSharedModelCache().get("org.test", "shared-parent", "1", "raw"));
+		cache.getProblemsFor(child, null);
+		assertEquals(buildCount, cache.getBuildCount());
+		cache.stop();
+	}
 }
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.Collections;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.lemminx.dom.DOMDocument;
+import org.eclipse.lemminx.dom.DOMParser;
+import org.eclipse.lemminx.maven.MavenPlugin;
+import org.eclipse.lemminx.maven.MavenProjectCache;
+import org.eclipse.lemminx.maven.MavenProjectWorkspaceReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MavenProjectWorkspaceReaderTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private static final String AGGREGATOR = "<project><modelVersion>4.0.0</modelVersion>" //
+			+ "<groupId>org.test</groupId><artifactId>aggregator</artifactId><version>1</version>" //
+			+ "<packaging>pom</packaging><modules><module>bom</module><module>app</module></modules></project>";
+
+	private static final String BOM = "<project><modelVersion>4.0.0</modelVersion>" //
+			+ "<parent><groupId>org.test</groupId><artifactId>aggregator</artifactId><version>1</version></parent>" //
+			+ "<artifactId>sibling-bom</artifactId><packaging>pom</packaging>" //
+			+ "<dependencyManagement><dependencies><dependency>" //
+			+ "<groupId>org.test</groupId><artifactId>managed</artifactId><version>4.2</version>" //
+			+ "</dependency></dependencies></dependencyManagement></project>";
+
+	private static final String APP = "<project><modelVersion>4.0.0</modelVersion>" //
+			+ "<groupId>org.test</groupId><artifactId>app</artifactId><version>1</version>" //
+			+ "<dependencyManagement><dependencies><dependency>" //
+			+ "<groupId>org.test</groupId><artifactId>sibling-bom</artifactId><version>1</version>" //
+			+ "<type>pom</type><scope>import</scope>" //
+			+ "</dependency></dependencies></dependencyManagement>" //
+			+ "<dependencies><dependency><groupId>org.test</groupId><artifactId>managed</artifactId></dependency>" //
+			+ "</dependencies></project>";
+
+	private File write(String path, String content) throws Exception {
+		File file = new File(temporaryFolder.getRoot(), path);
+		FileUtils.writeStringToFile(file, content, "UTF-8");
+		return file;
+	}
+
+	private static DOMDocument document(File file) throws Exception {
+		return DOMParser.getInstance().parse(FileUtils.readFileToString(file, "UTF-8"), file.toURI().toString(),
+				null);
+	}
+
+	@Test
+	public void testModuleResolvesFromSourcePom() throws Exception {
+		File aggregatorPom = write("pom.xml", AGGREGATOR);
+		File bomPom = write("bom/pom.xml", BOM);
+		Model model = new Model();
+		model.setGroupId("org.test");
+		model.setArtifactId("aggregator");
+		model.setVersion("1");
+		model.setModules(Collections.singletonList("bom"));
+		MavenProject aggregator = new MavenProject(model);
+		aggregator.setFile(aggregatorPom);
+
+		MavenProjectWorkspaceReader reader = new MavenProjectWorkspaceReader();
+		reader.addProject(aggregator);
+		assertEquals(bomPom, reader.findArtifact(new DefaultArtifact("org.test", "sibling-bom", "pom", "1")));
+		assertEquals(Collections.singletonList("1"),
+				reader.findVersions(new DefaultArtifact("org.test", "sibling-bom", "pom", "1")));
+		assertNull(reader.findArtifact(new DefaultArtifact("org.test", "sibling-bom", "pom", "2")));
+	}
+
+	@Test
+	public void testSiblingBomIsImportedFromSourcePom() throws Exception {
+		// the BOM was never installed, it can only come from its source POM
+		File aggregatorPom = write("pom.xml", AGGREGATOR);
+		write("bom/pom.xml", BOM);
+		File appPom = write("app/pom.xml", APP);
+		MavenProjectCache cache = new MavenProjectCache(MavenPlugin.newPlexusContainer());
+		cache.getProblemsFor(document(aggregatorPom), null);
+		DOMDocument app = document(appPom);
+		cache.getProblemsFor(app, null);
+		MavenProject project = cache.getLastSuccessfulMavenProject(app);
+		assertEquals("4.2", project.getDependencies().get(0).getVersion());
+		cache.stop();
+	}
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.eclipse.lemminx.dom.DOMParser;
+import org.eclipse.lemminx.maven.ModelFingerprint;
+import org.junit.Test;
+
+public class ModelFingerprintTest {
+
+	private static final String POM = "<project>\n" //
+			+ "  <modelVersion>4.0.0</modelVersion>\n" //
+			+ "  <artifactId>a</artifactId>\n" //
+			+ "  <description>A</description>\n" //
+			+ "  <dependencies><dependency><artifactId>b</artifactId></dependency></dependencies>\n" //
+			+ "</project>";
+
+	private static String fingerprint(String content) {
+		return ModelFingerprint.compute(DOMParser.getInstance().parse(content, "file:///pom.xml", null));
+	}
+
+	@Test
+	public void testFormattingCommentsAndDescriptionAreIgnored() {
+		String edited = POM.replace("  <artifactId>a</artifactId>\n", "\n\t<!-- comment --><artifactId> a </artifactId>")
+				.replace("<description>A</description>", "<description>Another</description>");
+		assertEquals(fingerprint(POM), fingerprint(edited));
+	}
+
+	@Test
+	public void testModelChangesAreDetected() {
+		assertNotEquals(fingerprint(POM), fingerprint(POM.replace("<artifactId>b</artifactId>", "<artifactId>c</artifactId>")));
+		assertNotEquals(fingerprint(POM), fingerprint(POM.replace("</dependencies>", "</dependencies><properties/>")));
+	}
+
+	@Test
+	public void testReferencedDescriptionIsNotIgnored() {
+		String referencing = POM.replace("</project>", "<properties><d>${project.description}</d></properties></project>");
+		assertNotEquals(fingerprint(referencing), fingerprint(referencing.replace("<description>A<", "<description>B<")));
+	}
+}
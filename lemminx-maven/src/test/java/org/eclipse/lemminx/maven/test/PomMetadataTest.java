@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.maven.model.Dependency;
+import org.eclipse.lemminx.maven.searcher.LocalRepositorySearcher;
+import org.eclipse.lemminx.maven.searcher.PomMetadata;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PomMetadataTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File repository;
+	private LocalRepositorySearcher searcher;
+
+	@Before
+	public void setUp() throws Exception {
+		repository = temporaryFolder.newFolder("repository");
+		searcher = new LocalRepositorySearcher(repository);
+	}
+
+	@After
+	public void tearDown() {
+		searcher.stop();
+	}
+
+	private static Dependency artifact(String artifactId) {
+		Dependency artifact = new Dependency();
+		artifact.setGroupId("org.test");
+		artifact.setArtifactId(artifactId);
+		artifact.setVersion("1");
+		return artifact;
+	}
+
+	/**
+	 * Writes the POM keeping its modification time, so that only a re-read sees
+	 * the change
+	 */
+	private File install(String artifactId, String name, long lastModified) throws Exception {
+		File pomFile = searcher.findLocalFile(artifact(artifactId));
+		pomFile.getParentFile().mkdirs();
+		Files.write(pomFile.toPath(), ("<project><artifactId>" + artifactId + "</artifactId><name>" + name
+				+ "</name><description>desc</description></project>").getBytes(StandardCharsets.UTF_8));
+		pomFile.setLastModified(lastModified);
+		return pomFile;
+	}
+
+	/**
+	 * @return the metadata once read in background, or <code>null</code> if it
+	 *         isn't read within 5s
+	 */
+	private PomMetadata awaitPomMetadata(Dependency artifact) throws InterruptedException {
+		PomMetadata metadata = searcher.getCachedPomMetadata(artifact);
+		for (int i = 0; i < 100 && metadata == null; i++) {
+			Thread.sleep(50);
+			metadata = searcher.getCachedPomMetadata(artifact);
+		}
+		return metadata;
+	}
+
+	@Test
+	public void testMetadataIsReadAgainWhenModified() throws Exception {
+		File pomFile = install("a", "first", 1000000);
+		PomMetadata metadata = awaitPomMetadata(artifact("a"));
+		assertEquals("first", metadata.getName());
+		assertEquals("desc", metadata.getDescription());
+
+		install("a", "second", 1000000);
+		assertEquals("first", searcher.getCachedPomMetadata(artifact("a")).getName());
+		pomFile.setLastModified(2000000);
+		assertNull(searcher.getCachedPomMetadata(artifact("a")));
+		assertEquals("second", awaitPomMetadata(artifact("a")).getName());
+
+		assertNull(searcher.getCachedPomMetadata(artifact("missing")));
+		// read after the missing POM by the same thread
+		install("b", "first", 1000000);
+		awaitPomMetadata(artifact("b"));
+		assertNull(searcher.getCachedPomMetadata(artifact("missing")));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedMetadataIsEvicted() throws Exception {
+		install("a", "first", 1000000);
+		awaitPomMetadata(artifact("a"));
+		install("b", "first", 1000000);
+		awaitPomMetadata(artifact("b"));
+		// a becomes the most recently used
+		searcher.getCachedPomMetadata(artifact("a"));
+		for (int i = 0; i < 255; i++) {
+			install("filler" + i, "filler", 1000000);
+			searcher.getCachedPomMetadata(artifact("filler" + i));
+		}
+		// read last by the same thread
+		awaitPomMetadata(artifact("filler254"));
+		install("a", "second", 1000000);
+		install("b", "second", 1000000);
+		assertEquals("first", searcher.getCachedPomMetadata(artifact("a")).getName());
+		assertEquals("second", awaitPomMetadata(artifact("b")).getName());
+	}
+
+	@Test
+	public void testCachedMetadataIsReadInBackground() throws Exception {
+		install("a", "first", 1000000);
+		assertNull(searcher.getCachedPomMetadata(artifact("a")));
+		assertEquals("first", awaitPomMetadata(artifact("a")).getName());
+	}
+}
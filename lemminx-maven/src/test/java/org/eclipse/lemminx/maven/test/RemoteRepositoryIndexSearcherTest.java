@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.model.Dependency;
+import org.eclipse.lemminx.maven.BoundedSoftCache;
+import org.eclipse.lemminx.maven.searcher.RemoteRepositoryIndexSearcher;
+import org.eclipse.lsp4j.jsonrpc.CancelChecker;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RemoteRepositoryIndexSearcherTest {
+
+	private static final CancelChecker NOT_CANCELLABLE = () -> {
+	};
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private TestIndex index;
+	private RemoteRepositoryIndexSearcher searcher;
+
+	@Before
+	public void setUp() throws Exception {
+		index = new TestIndex(temporaryFolder.newFolder("test"));
+		index.add("jar", "org.test:a:1.0", "org.test:a:1.1", "org.test:a:1.2", "org.test:a:1.3", "org.test:ab:1.0",
+				"org.test:abc:1.0");
+		// no repository, so that nothing gets downloaded
+		searcher = new RemoteRepositoryIndexSearcher(CompletableFuture.completedFuture(index.getContainer()),
+				temporaryFolder.newFolder("indexes"), Collections.emptyList());
+		searcher.getInitialization().get();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		searcher.closeContext();
+		index.close();
+	}
+
+	private static Dependency artifact(String artifactId) {
+		Dependency artifact = new Dependency();
+		artifact.setGroupId("org.test");
+		artifact.setArtifactId(artifactId);
+		return artifact;
+	}
+
+	@Test
+	public void testCancellationStopsSearch() throws Exception {
+		AtomicInteger checks = new AtomicInteger();
+		// passes the check before the search and the one of the first hit
+		CancelChecker cancelChecker = () -> {
+			if (checks.incrementAndGet() > 2) {
+				throw new CancellationException();
+			}
+		};
+		List<ArtifactVersion> versions = new ArrayList<>();
+		try {
+			searcher.searchArtifactVersions(artifact("a"), false, 100, cancelChecker, versions::add, index.getContext());
+			fail("the search should have been canceled");
+		} catch (CancellationException e) {
+			// expected
+		}
+		assertEquals(1, versions.size());
+
+		// partial results aren't cached
+		versions.clear();
+		searcher.searchArtifactVersions(artifact("a"), false, 100, NOT_CANCELLABLE, versions::add, index.getContext());
+		assertEquals(4, versions.size());
+	}
+
+	@Test
+	public void testMaxResults() throws Exception {
+		List<ArtifactVersion> versions = new ArrayList<>();
+		searcher.searchArtifactVersions(artifact("a"), false, 2, NOT_CANCELLABLE, versions::add, index.getContext());
+		assertEquals(2, versions.size());
+
+		List<ArtifactInfo> artifacts = new ArrayList<>();
+		searcher.searchArtifactIds(artifact("a"), false, 2, NOT_CANCELLABLE, artifacts::add, index.getContext());
+		assertEquals(2, artifacts.size());
+		assertEquals("a", artifacts.get(0).getArtifactId());
+		assertEquals("1.3", artifacts.get(0).getVersion());
+	}
+
+	@Test
+	public void testCachedResults() throws Exception {
+		List<ArtifactVersion> versions = new ArrayList<>();
+		searcher.searchArtifactVersions(artifact("a"), false, 100, NOT_CANCELLABLE, versions::add, index.getContext());
+		assertCacheStatistics(0, 1);
+
+		// same query once trimmed
+		List<ArtifactVersion> cachedVersions = new ArrayList<>();
+		searcher.searchArtifactVersions(artifact(" a "), false, 100, NOT_CANCELLABLE, cachedVersions::add,
+				index.getContext());
+		assertCacheStatistics(1, 1);
+		assertEquals(versions, cachedVersions);
+
+		// other queries
+		searcher.searchArtifactVersions(artifact("a"), false, 3, NOT_CANCELLABLE, version -> {
+		}, index.getContext());
+		assertCacheStatistics(1, 2);
+		searcher.searchArtifactIds(artifact("a"), false, 100, NOT_CANCELLABLE, artifactInfo -> {
+		}, index.getContext());
+		assertCacheStatistics(1, 3);
+	}
+
+	@Test
+	public void testCachedResultsOfUpdatedIndex() throws Exception {
+		searcher.searchArtifactVersions(artifact("a"), false, 100, NOT_CANCELLABLE, version -> {
+		}, index.getContext());
+		assertCacheStatistics(0, 1);
+
+		index.add("jar", "org.test:a:1.4");
+		index.getContext().updateTimestamp(true, new Date(getTimestamp() + 1000));
+		List<ArtifactVersion> versions = new ArrayList<>();
+		searcher.searchArtifactVersions(artifact("a"), false, 100, NOT_CANCELLABLE, versions::add, index.getContext());
+		assertCacheStatistics(0, 2);
+		assertEquals(5, versions.size());
+	}
+
+	private long getTimestamp() {
+		Date timestamp = index.getContext().getTimestamp();
+		return timestamp != null ? timestamp.getTime() : 0;
+	}
+
+	private void assertCacheStatistics(long hitCount, long missCount) {
+		BoundedSoftCache.Statistics statistics = searcher.getQueryCacheStatistics();
+		assertEquals(hitCount, statistics.getHitCount());
+		assertEquals(missCount, statistics.getMissCount());
+	}
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.lemminx.maven.SharedModelCache;
+import org.junit.Test;
+
+public class SharedModelCacheTest {
+
+	@Test
+	public void testInvalidationRemovesDependentModelsOnly() {
+		SharedModelCache cache = new SharedModelCache(gav -> null);
+		cache.put("org.test", "parent", "1", "raw", "parent");
+		cache.put("org.test", "other", "1", "raw", "other");
+		// import of a BOM inheriting from bom-parent, as Maven builds it
+		assertNull(cache.get("org.test", "bom", "1", "import"));
+		cache.put("org.test", "bom-parent", "1", "raw", "bom-parent");
+		cache.put("org.test", "bom", "1", "raw", "bom");
+		cache.put("org.test", "bom", "1", "import", "bom-import");
+		cache.buildDone();
+
+		cache.invalidate("org.test", "parent", "1");
+		assertNull(cache.get("org.test", "parent", "1", "raw"));
+		assertEquals("bom-import", cache.get("org.test", "bom", "1", "import"));
+		assertEquals("other", cache.get("org.test", "other", "1", "raw"));
+
+		cache.invalidate("org.test", "bom-parent", "1");
+		assertNull(cache.get("org.test", "bom", "1", "import"));
+		assertEquals("bom", cache.get("org.test", "bom", "1", "raw"));
+		assertEquals("other", cache.get("org.test", "other", "1", "raw"));
+		cache.buildDone();
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+		SharedModelCache cache = new SharedModelCache(gav -> null, 2);
+		cache.put("org.test", "a", "1", "raw", "a");
+		cache.put("org.test", "b", "1", "raw", "b");
+		assertEquals("a", cache.get("org.test", "a", "1", "raw"));
+		cache.put("org.test", "c", "1", "raw", "c");
+		assertEquals(2, cache.size());
+		assertNull(cache.get("org.test", "b", "1", "raw"));
+		assertEquals("a", cache.get("org.test", "a", "1", "raw"));
+	}
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.lucene.search.Query;
+import org.apache.maven.index.ArtifactContext;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.Indexer;
+import org.apache.maven.index.IteratorSearchRequest;
+import org.apache.maven.index.IteratorSearchResponse;
+import org.apache.maven.index.context.IndexCreator;
+import org.apache.maven.index.context.IndexingContext;
+import org.codehaus.plexus.PlexusContainer;
+import org.eclipse.lemminx.maven.MavenPlugin;
+
+/**
+ * An index of artifacts in a local directory, built with the same index
+ * creator as the remote indexes.
+ */
+public class TestIndex {
+
+	private final PlexusContainer container;
+	private final Indexer indexer;
+	private final IndexingContext context;
+
+	public TestIndex(File directory) throws Exception {
+		container = MavenPlugin.newPlexusContainer();
+		indexer = container.lookup(Indexer.class);
+		context = indexer.createIndexingContext("test", "test", new File(directory, "repository"),
+				new File(directory, "index"), null, null, true, true,
+				Collections.singletonList(container.lookup(IndexCreator.class, "min")));
+	}
+
+	/**
+	 * Adds the artifacts, documents being numbered in the order they're added
+	 *
+	 * @param gavs <code>groupId:artifactId:version</code> of the artifacts
+	 */
+	public void add(String packaging, String... gavs) throws IOException {
+		List<ArtifactContext> artifacts = new ArrayList<>();
+		for (String gav : gavs) {
+			String[] segments = gav.split(":");
+			ArtifactInfo info = new ArtifactInfo("test", segments[0], segments[1], segments[2], null, "jar");
+			info.setPackaging(packaging);
+			artifacts.add(new ArtifactContext(null, null, null, info, info.calculateGav()));
+		}
+		indexer.addArtifactsToIndex(artifacts, context);
+	}
+
+	public List<ArtifactInfo> search(Query query) throws IOException {
+		List<ArtifactInfo> hits = new ArrayList<>();
+		try (IteratorSearchResponse response = indexer
+				.searchIterator(new IteratorSearchRequest(query, Collections.singletonList(context), null))) {
+			response.getResults().forEach(hits::add);
+		}
+		return hits;
+	}
+
+	public PlexusContainer getContainer() {
+		return container;
+	}
+
+	public Indexer getIndexer() {
+		return indexer;
+	}
+
+	public IndexingContext getContext() {
+		return context;
+	}
+
+	public void close() throws IOException {
+		indexer.closeIndexingContext(context, true);
+		container.dispose();
+	}
+}
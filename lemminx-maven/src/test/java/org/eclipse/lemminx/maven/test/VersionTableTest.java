@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2020 Red Hat Inc. and others.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+package org.eclipse.lemminx.maven.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.eclipse.lemminx.maven.searcher.StringDictionary;
+import org.eclipse.lemminx.maven.searcher.VersionTable;
+import org.junit.Test;
+
+public class VersionTableTest {
+
+	@Test
+	public void testSortKeysFollowVersionOrder() {
+		VersionTable table = new VersionTable();
+		List<String> versions = Arrays.asList("1.10", "1.2", "2.0-SNAPSHOT", "1.0-alpha-1");
+		assertEquals(Arrays.asList("1.0-alpha-1", "1.2", "1.10", "2.0-SNAPSHOT"),
+				versions.stream().sorted(table.comparator(versions)).collect(Collectors.toList()));
+		// versions added after a first ranking are merged in
+		List<String> moreVersions = Arrays.asList("2.0", "1.9", "1.10", "1.2", "2.0-SNAPSHOT", "1.0-alpha-1");
+		assertEquals(Arrays.asList("1.0-alpha-1", "1.2", "1.9", "1.10", "2.0-SNAPSHOT", "2.0"),
+				moreVersions.stream().sorted(table.comparator(moreVersions)).collect(Collectors.toList()));
+		assertEquals(table.getSortKey("1.0"), table.getSortKey("1"));
+		assertTrue(table.getSortKey("1.9") < table.getSortKey("1.10"));
+	}
+
+	@Test
+	public void testVersionsAreParsedOnce() {
+		VersionTable table = new VersionTable();
+		assertSame(table.get("3.6.3"), table.get(new String("3.6.3")));
+	}
+
+	@Test
+	public void testVersionIdsAreConsistent() {
+		VersionTable table = new VersionTable();
+		assertEquals(-1, table.findId("1.0"));
+		int id = table.getId("1.0");
+		assertEquals(id, table.getId(new String("1.0")));
+		assertEquals(id, table.findId("1.0"));
+		assertNotEquals(id, table.getId("1"));
+		assertEquals("1.0", table.get(id).toString());
+		assertSame(table.get(id), table.get("1.0"));
+		assertEquals(table.getSortKey(id), table.getSortKey("1.0"));
+	}
+
+	@Test
+	public void testDictionaryIdsAreConsistent() {
+		StringDictionary dictionary = new StringDictionary();
+		assertEquals(-1, dictionary.findId("org"));
+		int id = dictionary.getId("org");
+		int otherId = dictionary.getId("apache");
+		assertNotEquals(id, otherId);
+		assertEquals(id, dictionary.getId(new String("org")));
+		assertEquals(id, dictionary.findId("org"));
+		assertEquals("org", dictionary.get(id));
+		assertEquals("apache", dictionary.get(otherId));
+		assertSame(dictionary.get(id), dictionary.intern(new String("org")));
+		assertEquals(2, dictionary.size());
+	}
+
+	@Test
+	public void testComparatorKeepsItsSortKeys() {
+		VersionTable table = new VersionTable();
+		List<String> versions = Arrays.asList("1.2", null, "1.10", "1.0");
+		Comparator<String> comparator = table.comparator(versions);
+		// ranks versions in between, shifting the sort keys of the table
+		table.getSortKey("1.1");
+		table.getSortKey("1.5");
+		assertEquals(Arrays.asList(null, "1.0", "1.2", "1.10"),
+				versions.stream().sorted(comparator).collect(Collectors.toList()));
+		assertTrue(table.getSortKey("1.5") < table.getSortKey("1.10"));
+	}
+
+	@Test
+	public void testClear() {
+		VersionTable table = new VersionTable();
+		table.getSortKey("1.0");
+		table.getSortKey("2.0");
+		assertEquals(2, table.size());
+		table.clear();
+		assertEquals(0, table.size());
+		assertEquals(-1, table.findId("1.0"));
+		assertTrue(table.getSortKey("3.0") < table.getSortKey("4.0"));
+		assertEquals("3.0", table.get(table.findId("3.0")).toString());
+	}
+}